@@ -27,6 +27,7 @@ import mods.railcraft.common.blocks.machine.wayobjects.boxes.TileBoxBase;
 import mods.railcraft.common.blocks.machine.wayobjects.signals.*;
 import mods.railcraft.common.blocks.multi.TileSteamTurbine;
 import mods.railcraft.common.blocks.multi.TileTankBase;
+import mods.railcraft.common.carts.CartIndex;
 import mods.railcraft.common.carts.EntityTunnelBore;
 import mods.railcraft.common.core.CommonProxy;
 import mods.railcraft.common.core.RailcraftConfig;
@@ -48,6 +49,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.client.event.TextureStitchEvent;
 import net.minecraftforge.client.model.ModelLoaderRegistry;
 import net.minecraftforge.client.resource.IResourceType;
@@ -58,6 +60,7 @@ import net.minecraftforge.fml.client.FMLClientHandler;
 import net.minecraftforge.fml.client.registry.ClientRegistry;
 import net.minecraftforge.fml.client.registry.RenderingRegistry;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.apache.logging.log4j.Level;
@@ -130,6 +133,20 @@ public class ClientProxy extends CommonProxy implements ISelectiveResourceReload
 //            itemContainer.getObject().ifPresent(IRailcraftItemSimple::initializeClient);
 //        }
 
+        MinecraftForge.EVENT_BUS.register(new Object() {
+            @SubscribeEvent
+            public void renderTick(TickEvent.RenderTickEvent event) {
+                if (event.phase == TickEvent.Phase.START)
+                    CartIndex.INSTANCE.onFrame();
+            }
+
+            @SubscribeEvent
+            public void debugOverlay(RenderGameOverlayEvent.Text event) {
+                if (Minecraft.getMinecraft().gameSettings.showDebugInfo)
+                    event.getRight().add("Railcraft cart lookups: " + CartIndex.INSTANCE.getLookupsLastFrame() + "/frame");
+            }
+        });
+
         RailcraftObjects.processItems(IRailcraftItemSimple::initializeClient);
 
 //        for (RailcraftBlocks blockContainer : RailcraftBlocks.VALUES) {
@@ -10,38 +10,66 @@
 
 package mods.railcraft.client.render.world;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntList;
 import mods.railcraft.client.render.tools.OpenGL;
-import mods.railcraft.common.carts.CartTools;
+import mods.railcraft.common.carts.ShuntingAuraTickHandler.CartInfo;
 import mods.railcraft.common.items.ItemGoggles;
 import mods.railcraft.common.util.misc.Game;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityMinecart;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
-import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import org.jetbrains.annotations.Nullable;
 import org.lwjgl.opengl.GL11;
 
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created by CovertJaguar on 5/16/2017 for Railcraft.
  *
+ * The carts and links to draw are resolved once whenever the aura data changes, and all the lines
+ * are then drawn from a single vertex buffer each frame.
+ *
  * @author CovertJaguar <http://www.railcraft.info>
  */
 @SideOnly(Side.CLIENT)
 public class GoggleAuraWorldRenderer {
+    private static final int RESOLVE_RETRY_TICKS = 20;
 
     public static GoggleAuraWorldRenderer INSTANCE = new GoggleAuraWorldRenderer();
-    public Collection<CartInfo> cartInfos = new LinkedList<>();
+    private final Int2ObjectOpenHashMap<CartInfo> cartInfos = new Int2ObjectOpenHashMap<>();
+    private final List<Line> lines = new ArrayList<>();
+    private boolean dirty;
+    private boolean incomplete;
+    private long resolvedAt;
+
+    /**
+     * Applies an update from the server.
+     */
+    public void update(boolean reset, IntList removed, List<CartInfo> changed) {
+        if (reset)
+            cartInfos.clear();
+        for (int i = 0; i < removed.size(); i++) {
+            cartInfos.remove(removed.getInt(i));
+        }
+        for (CartInfo info : changed) {
+            cartInfos.put(info.id, info);
+        }
+        dirty = true;
+    }
 
     @SubscribeEvent
     public void onWorldRender(final RenderWorldLastEvent event) {
@@ -55,6 +83,10 @@ public class GoggleAuraWorldRenderer {
             ItemStack goggles = ItemGoggles.getGoggles(player);
             ItemGoggles.GoggleAura aura = ItemGoggles.getCurrentAura(goggles);
             if (aura == ItemGoggles.GoggleAura.SHUNTING) {
+                World world = Minecraft.getMinecraft().world;
+                if (dirty || (incomplete && world.getTotalWorldTime() - resolvedAt >= RESOLVE_RETRY_TICKS))
+                    resolve(world);
+
                 OpenGL.glPushMatrix();
                 final double px = player.lastTickPosX + (player.posX - player.lastTickPosX) * event.getPartialTicks();
                 final double py = player.lastTickPosY + (player.posY - player.lastTickPosY) * event.getPartialTicks();
@@ -73,23 +105,19 @@ public class GoggleAuraWorldRenderer {
                 OpenGL.glHint(GL11.GL_LINE_SMOOTH_HINT, GL11.GL_NICEST);
                 OpenGL.glLineWidth(4F);
 
-                OpenGL.glBegin(GL11.GL_LINES);
-
-                World world = Minecraft.getMinecraft().world;
-                for (CartInfo cartInfo : cartInfos) {
-                    EntityMinecart cart = CartTools.getCartFromUUID(world, cartInfo.id);
-                    if (cart == null) {
+                Tessellator tessellator = Tessellator.getInstance();
+                BufferBuilder buffer = tessellator.getBuffer();
+                buffer.begin(GL11.GL_LINES, DefaultVertexFormats.POSITION_COLOR);
+                for (Line line : lines) {
+                    if (line.from.isDead || (line.to != null && line.to.isDead)) {
+                        dirty = true;
                         continue;
                     }
-                    setColor(cartInfo.train.hashCode());
-                    OpenGL.glVertex(cart.getPositionVector());
-                    Vec3d top = cart.getPositionVector().add(0.0, 2.0, 0.0);
-                    OpenGL.glVertex(top);
-
-                    renderLink(world, top, cartInfo.linkA);
-                    renderLink(world, top, cartInfo.linkB);
+                    buffer.pos(line.from.posX, line.from.posY + line.fromHeight, line.from.posZ).color(line.red, line.green, line.blue, 0.8F).endVertex();
+                    Entity to = line.to == null ? line.from : line.to;
+                    buffer.pos(to.posX, to.posY + line.toHeight, to.posZ).color(line.red, line.green, line.blue, 0.8F).endVertex();
                 }
-                OpenGL.glEnd();
+                tessellator.draw();
 
                 OpenGL.glLineWidth(2F);
                 OpenGL.glEnable(GL11.GL_TEXTURE_2D);
@@ -102,37 +130,65 @@ public class GoggleAuraWorldRenderer {
     public void onWorldUnload(WorldEvent.Unload event) {
         if (Game.isClient(event.getWorld())) {
             cartInfos.clear();
+            lines.clear();
         }
     }
 
-    private void setColor(int color) {
-        float c1 = (float) (color >> 16 & 255) / 255.0F;
-        float c2 = (float) (color >> 8 & 255) / 255.0F;
-        float c3 = (float) (color & 255) / 255.0F;
-        OpenGL.glColor4f(c1, c2, c3, 0.8F);
-    }
-
-    private void renderLink(World world, Vec3d top, UUID linkId) {
-        EntityMinecart link = CartTools.getCartFromUUID(world, linkId);
-        if (link != null) {
-            OpenGL.glVertex(top);
-            OpenGL.glVertex(link.getPositionVector().add(0.0, 1.5, 0.0));
+    private void resolve(World world) {
+        lines.clear();
+        incomplete = false;
+        for (CartInfo info : cartInfos.values()) {
+            EntityMinecart cart = getCart(world, info.id);
+            if (cart == null) {
+                incomplete = true;
+                continue;
+            }
+            float red = (float) (info.train >> 16 & 255) / 255.0F;
+            float green = (float) (info.train >> 8 & 255) / 255.0F;
+            float blue = (float) (info.train & 255) / 255.0F;
+            lines.add(new Line(cart, 0.0, null, 2.0, red, green, blue));
+            addLink(world, cart, info.linkA, red, green, blue);
+            addLink(world, cart, info.linkB, red, green, blue);
         }
+        dirty = false;
+        resolvedAt = world.getTotalWorldTime();
     }
 
-    public static class CartInfo {
+    private void addLink(World world, EntityMinecart cart, int linkId, float red, float green, float blue) {
+        if (linkId < 0)
+            return;
+        EntityMinecart link = getCart(world, linkId);
+        if (link != null)
+            lines.add(new Line(cart, 2.0, link, 1.5, red, green, blue));
+        else
+            incomplete = true;
+    }
 
-        public final UUID id;
-        public final UUID train;
-        public final UUID linkA;
-        public final UUID linkB;
+    private static @Nullable EntityMinecart getCart(World world, int id) {
+        Entity entity = world.getEntityByID(id);
+        return entity instanceof EntityMinecart && !entity.isDead ? (EntityMinecart) entity : null;
+    }
 
-        public CartInfo(UUID id, UUID train, UUID linkA, UUID linkB) {
-            this.id = id;
-            this.train = train;
-            this.linkA = linkA;
-            this.linkB = linkB;
+    /**
+     * A line from a point above one cart to a point above another, or above the same cart.
+     */
+    private static final class Line {
+        private final Entity from;
+        private final double fromHeight;
+        private final @Nullable Entity to;
+        private final double toHeight;
+        private final float red;
+        private final float green;
+        private final float blue;
+
+        private Line(Entity from, double fromHeight, @Nullable Entity to, double toHeight, float red, float green, float blue) {
+            this.from = from;
+            this.fromHeight = fromHeight;
+            this.to = to;
+            this.toHeight = toHeight;
+            this.red = red;
+            this.green = green;
+            this.blue = blue;
         }
-
     }
 }
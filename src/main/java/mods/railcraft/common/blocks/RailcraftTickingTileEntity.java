@@ -12,25 +12,38 @@ package mods.railcraft.common.blocks;
 
 import mods.railcraft.common.util.misc.MiscTools;
 import mods.railcraft.common.util.network.PacketBuilder;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.ITickable;
+import net.minecraft.util.math.BlockPos;
 
 import javax.annotation.OverridingMethodsMustInvokeSuper;
 
 /**
  * Created by CovertJaguar on 7/13/2016 for Railcraft.
  *
+ * Subclasses may put themselves to sleep on the server when they have nothing to do. A sleeping
+ * tile is still ticked, but is expected to return from {@link #update()} right after calling
+ * super, until it is woken by a neighbor change, by {@link #markDirty()}, by its scheduled wake
+ * time, or by anything else calling {@link #wake()}.
+ *
  * @author CovertJaguar <http://www.railcraft.info>
  */
 public abstract class RailcraftTickingTileEntity extends RailcraftTileEntity implements ITickable {
 
     protected int clock = MiscTools.RANDOM.nextInt();
     private boolean sendClientUpdate;
+    private boolean sleeping;
+    private long wakeTime;
 
     @Override
     @OverridingMethodsMustInvokeSuper
     public void update() {
         clock++;
 
+        if (sleeping && world.getTotalWorldTime() >= wakeTime)
+            sleeping = false;
+
         if (sendClientUpdate) {
             sendClientUpdate = false;
             PacketBuilder.instance().sendTileEntityPacket(this);
@@ -42,4 +55,32 @@ public abstract class RailcraftTickingTileEntity extends RailcraftTileEntity imp
         sendClientUpdate = true;
     }
 
+    /**
+     * Puts the tile to sleep until woken, or for the given number of ticks if positive.
+     */
+    protected final void sleep(int ticks) {
+        sleeping = true;
+        wakeTime = ticks > 0 ? world.getTotalWorldTime() + ticks : Long.MAX_VALUE;
+    }
+
+    public final void wake() {
+        sleeping = false;
+    }
+
+    public final boolean isSleeping() {
+        return sleeping;
+    }
+
+    @Override
+    public void onNeighborBlockChange(IBlockState state, Block neighborBlock, BlockPos neighborPos) {
+        wake();
+        super.onNeighborBlockChange(state, neighborBlock, neighborPos);
+    }
+
+    @Override
+    public void markDirty() {
+        wake();
+        super.markDirty();
+    }
+
 }
@@ -11,9 +11,6 @@ package mods.railcraft.common.blocks;
 
 import com.google.common.base.Strings;
 import com.mojang.authlib.GameProfile;
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufOutputStream;
-import io.netty.buffer.Unpooled;
 import mods.railcraft.api.core.INetworkedObject;
 import mods.railcraft.api.core.IOwnable;
 import mods.railcraft.api.core.RailcraftConstantsAPI;
@@ -26,6 +23,7 @@ import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.network.PacketBuilder;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
+import mods.railcraft.common.util.network.SyncedFields;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EntityLivingBase;
@@ -44,15 +42,16 @@ import net.minecraft.world.World;
 import org.apache.logging.log4j.Level;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.UUID;
 
 public abstract class RailcraftTileEntity extends TileEntity implements INetworkedObject<RailcraftInputStream, RailcraftOutputStream>, IOwnable, ITile {
 
     protected final AdjacentTileCache tileCache = new AdjacentTileCache(this);
+    protected final SyncedFields syncedFields = new SyncedFields();
 
     private GameProfile owner = new GameProfile(null, RailcraftConstantsAPI.RAILCRAFT_PLAYER);
     private @Nullable UUID uuid;
@@ -93,25 +92,54 @@ public abstract class RailcraftTileEntity extends TileEntity implements INetwork
     @Override
     public final NBTTagCompound getUpdateTag() {
         NBTTagCompound nbt = super.getUpdateTag();
-        ByteBuf byteBuf = Unpooled.buffer();
-        try (ByteBufOutputStream out = new ByteBufOutputStream(byteBuf);
-             RailcraftOutputStream data = new RailcraftOutputStream(out)) {
-            writePacketData(data);
+        nbt.setByteArray("sync", getSyncData());
+        return nbt;
+    }
+
+    @Override
+    public final void handleUpdateTag(NBTTagCompound nbt) {
+        readSyncData(nbt.getByteArray("sync"));
+    }
+
+    /**
+     * Returns the full sync data of the tile.
+     */
+    public final byte[] getSyncData() {
+        byte[][] parts = getSyncParts();
+        return getSyncData(parts, SyncedFields.changed(parts, null));
+    }
+
+    /**
+     * Returns the sync data split into the parts declared by {@link #syncedFields}.
+     */
+    public final byte[][] getSyncParts() {
+        try {
+            return syncedFields.encode(this::writePacketData);
         } catch (IOException e) {
             Game.logThrowable("Error constructing tile packet: {0}", e, getClass());
             if (Game.DEVELOPMENT_ENVIRONMENT)
                 throw new RuntimeException(e);
         }
-        nbt.setByteArray("sync", byteBuf.array());
-        return nbt;
+        return new byte[][]{new byte[0]};
     }
 
-    @Override
-    public final void handleUpdateTag(NBTTagCompound nbt) {
-        byte[] bytes = nbt.getByteArray("sync");
-        try (ByteArrayInputStream in = new ByteArrayInputStream(bytes);
-             RailcraftInputStream data = new RailcraftInputStream(in)) {
-            readPacketData(data);
+    /**
+     * Returns sync data holding only the given parts.
+     */
+    public final byte[] getSyncData(byte[][] parts, BitSet changed) {
+        try {
+            return syncedFields.join(parts, changed);
+        } catch (IOException e) {
+            Game.logThrowable("Error constructing tile packet: {0}", e, getClass());
+            if (Game.DEVELOPMENT_ENVIRONMENT)
+                throw new RuntimeException(e);
+        }
+        return new byte[0];
+    }
+
+    public final void readSyncData(byte[] bytes) {
+        try {
+            syncedFields.decode(bytes, this::readPacketData);
         } catch (IOException e) {
             Game.logThrowable("Error decoding tile packet: {0}", e, getClass());
             if (Game.DEVELOPMENT_ENVIRONMENT)
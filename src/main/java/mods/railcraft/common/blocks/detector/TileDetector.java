@@ -12,6 +12,7 @@ package mods.railcraft.common.blocks.detector;
 import mods.railcraft.api.carts.CartToolsAPI;
 import mods.railcraft.common.blocks.RailcraftTickingTileEntity;
 import mods.railcraft.common.carts.CartConstants;
+import mods.railcraft.common.carts.CartPositionIndex;
 import mods.railcraft.common.plugins.forge.PowerPlugin;
 import mods.railcraft.common.plugins.forge.WorldPlugin;
 import mods.railcraft.common.util.misc.Game;
@@ -25,10 +26,13 @@ import net.minecraft.entity.item.EntityMinecart;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 public class TileDetector extends RailcraftTickingTileEntity implements IGuiReturnHandler, ITileRouting {
@@ -39,6 +43,9 @@ public class TileDetector extends RailcraftTickingTileEntity implements IGuiRetu
     public Detector detector = Detector.DUMMY;
     //    private boolean tested;
     private int powerDelay;
+    private @Nullable CartPositionIndex.Watch watch;
+    private long skippedTests;
+    private long totalTests;
 
     public Detector getDetector() {
         return detector;
@@ -47,6 +54,7 @@ public class TileDetector extends RailcraftTickingTileEntity implements IGuiRetu
     public void setDetector(EnumDetector type) {
         this.detector = type.buildHandler();
         detector.setTile(this);
+        markCartsChanged();
         if (world != null) {
             markBlockForUpdate();
             notifyBlocksOfNeighborChange();
@@ -64,6 +72,7 @@ public class TileDetector extends RailcraftTickingTileEntity implements IGuiRetu
     public void setRoutingTable(ItemStack stack) {
         if (detector instanceof ITileRouting)
             ((ITileRouting) detector).setRoutingTable(stack);
+        markCartsChanged();
     }
 
     @Override
@@ -81,13 +90,76 @@ public class TileDetector extends RailcraftTickingTileEntity implements IGuiRetu
     }
 
     public boolean blockActivated(EntityPlayer player) {
+        markCartsChanged();
         return detector.blockActivated(player);
     }
 
     public void onNeighborBlockChange(Block block) {
+        markCartsChanged();
         detector.onNeighborBlockChange(block);
     }
 
+    /**
+     * Forces the detector to test the carts on its next update, even if none came or went.
+     */
+    public void markCartsChanged() {
+        wake();
+        if (watch != null)
+            watch.markChanged();
+    }
+
+    /**
+     * Returns true if the carts around the detector may have changed since the last test.
+     *
+     * While carts are present they are tested as usual, as their contents can change without
+     * them moving. Once the last one has left the detector sleeps until one arrives.
+     */
+    private boolean shouldTestCarts() {
+        if (watch == null || watch.isReleased()) {
+            List<BlockPos> sides = new ArrayList<>();
+            for (EnumFacing side : EnumFacing.VALUES) {
+                sides.add(getPos().offset(side));
+            }
+            watch = CartPositionIndex.INSTANCE.watch(world, sides);
+            watch.setListener(this::wake);
+        }
+        boolean changed = watch.pollChanged();
+        return changed || watch.isOccupied();
+    }
+
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        markCartsChanged();
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        releaseWatch();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        releaseWatch();
+    }
+
+    private void releaseWatch() {
+        if (watch != null) {
+            watch.release();
+            watch = null;
+        }
+    }
+
+    @Override
+    public List<String> getDebugOutput() {
+        List<String> debug = super.getDebugOutput();
+        debug.add("Detector: " + detector);
+        debug.add(String.format("Cart Tests: %d run, %d skipped", totalTests - skippedTests, skippedTests));
+        return debug;
+    }
+
     @Override
     public NBTTagCompound writeToNBT(NBTTagCompound data) {
         super.writeToNBT(data);
@@ -133,7 +205,7 @@ public class TileDetector extends RailcraftTickingTileEntity implements IGuiRetu
     @Override
     public void update() {
         super.update();
-        if (Game.isClient(getWorld()))
+        if (Game.isClient(getWorld()) || isSleeping())
             return;
         // Legacy stuff?
 //        if (!tested) {
@@ -150,6 +222,12 @@ public class TileDetector extends RailcraftTickingTileEntity implements IGuiRetu
         if (powerDelay > 0)
             powerDelay--;
         else if (detector.updateInterval() == 0 || clock % detector.updateInterval() == 0) {
+            totalTests++;
+            if (!shouldTestCarts()) {
+                skippedTests++;
+                sleep(0);
+                return;
+            }
             int newPowerState = detector.shouldTest() ? detector.testCarts(getCarts()) : PowerPlugin.NO_POWER;
             if (newPowerState != powerState) {
                 powerState = newPowerState;
@@ -172,6 +250,7 @@ public class TileDetector extends RailcraftTickingTileEntity implements IGuiRetu
     @Override
     public void readGuiData(RailcraftInputStream data, EntityPlayer sender) throws IOException {
         detector.readGuiData(data, sender);
+        markCartsChanged();
     }
 
     @Override
@@ -41,6 +41,7 @@ public abstract class TileRollingMachine extends TileMachineBase {
     public boolean useLast;
     protected boolean isWorking, paused;
     private @Nullable IRollingMachineRecipe currentRecipe = null;
+    private final RollingMachineCraftingManager.LastMatch lastMatch = new RollingMachineCraftingManager.LastMatch();
     private ItemStack currentRecipeOutput = ItemStack.EMPTY;
     private int progress;
     private int processTime = PROCESS_TIME;
@@ -129,7 +130,7 @@ public abstract class TileRollingMachine extends TileMachineBase {
             return;
 
         if (clock % 8 == 0) {
-            currentRecipe = RollingMachineCraftingManager.getInstance().findMatching(craftMatrix);
+            currentRecipe = RollingMachineCraftingManager.getInstance().findMatching(craftMatrix, lastMatch);
             if (currentRecipe != null) {
                 currentRecipeOutput = currentRecipe.getOutput(craftMatrix);
                 findMoreStuff();
@@ -195,7 +196,7 @@ public abstract class TileRollingMachine extends TileMachineBase {
     }
 
     public boolean canMakeMore() {
-        if (RollingMachineCraftingManager.getInstance().findMatching(craftMatrix) == null)
+        if (RollingMachineCraftingManager.getInstance().findMatching(craftMatrix, lastMatch) == null)
             return false;
         if (useLast)
             return true;
@@ -33,6 +33,11 @@ public class TileItemLoader extends TileItemManipulator {
         return cart;
     }
 
+    @Override
+    protected boolean canSleepWithoutCart() {
+        return true;
+    }
+
     @Override
     public Slot getBufferSlot(int id, int x, int y) {
         return new Slot(this, id, x, y);
@@ -11,6 +11,7 @@ package mods.railcraft.common.blocks.machine.manipulator;
 
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
+import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.gui.buttons.MultiButtonController;
 import mods.railcraft.common.util.collections.StackKey;
 import mods.railcraft.common.util.inventory.*;
@@ -30,8 +31,8 @@ import net.minecraft.nbt.NBTTagCompound;
 import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.util.EnumMap;
+import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 /**
  * @author CovertJaguar <http://www.railcraft.info>
@@ -89,6 +90,7 @@ public abstract class TileItemManipulator extends TileManipulatorCart {
     protected final InventoryComposite chests = InventoryComposite.make();
     protected final Multiset<StackKey> transferredItems = HashMultiset.create();
     protected final InventoryMapper invBuffer;
+    private int itemsMoved;
     private final PhantomInventory invFilters = new PhantomInventory(9, this);
     private final MultiButtonController<EnumTransferMode> transferModeController = MultiButtonController.create(EnumTransferMode.ALL.ordinal(), EnumTransferMode.values());
     protected AdjacentInventoryCache invCache = new AdjacentInventoryCache(tileCache, tile -> !getClass().isInstance(tile), InventorySorter.SIZE_DESCENDING);
@@ -140,45 +142,83 @@ public abstract class TileItemManipulator extends TileManipulatorCart {
         }
         this.cart = cartInv;
 
+        itemsMoved = 0;
+        int budget = RailcraftConfig.getItemManipulatorRate();
         switch (getMode()) {
             case ALL: {
                 InventoryManifest filterManifest = InventoryManifest.create(getItemFilters());
                 if (filterManifest.isEmpty()) {
-                    ItemStack moved = InvTools.moveOneItem(getSource(), getDestination());
-                    itemMoved(moved, null);
+                    moveItems(stack -> true, budget, null);
                 } else {
-                    moveItem(filterManifest.values().stream(), false);
+                    for (InventoryManifest.ManifestEntry entry : filterManifest.values()) {
+                        budget -= moveItems(StackFilters.matches(entry.key().get()), budget, null);
+                        if (budget <= 0)
+                            break;
+                    }
                 }
                 break;
             }
             case TRANSFER: {
                 InventoryManifest filterManifest = InventoryManifest.create(getItemFilters());
-                moveItem(filterManifest.values().stream().filter(entry -> transferredItems.count(entry.key()) < entry.count()), true);
+                for (InventoryManifest.ManifestEntry entry : filterManifest.values()) {
+                    int wanted = entry.count() - transferredItems.count(entry.key());
+                    if (wanted > 0)
+                        budget -= moveItems(StackFilters.matches(entry.key().get()), Math.min(budget, wanted), entry.key());
+                    if (budget <= 0)
+                        break;
+                }
                 break;
             }
             case STOCK: {
                 InventoryManifest filterManifest = InventoryManifest.create(getItemFilters());
                 InventoryManifest destManifest = InventoryManifest.create(getDestination(), filterManifest.keySet());
-                moveItem(filterManifest.values().stream().filter(entry -> destManifest.count(entry.key()) < entry.count()), false);
+                for (InventoryManifest.ManifestEntry entry : filterManifest.values()) {
+                    int wanted = entry.count() - destManifest.count(entry.key());
+                    if (wanted > 0)
+                        budget -= moveItems(StackFilters.matches(entry.key().get()), Math.min(budget, wanted), null);
+                    if (budget <= 0)
+                        break;
+                }
                 break;
             }
             case EXCESS: {
                 InventoryManifest filterManifest = InventoryManifest.create(getItemFilters());
                 InventoryManifest sourceManifest = InventoryManifest.create(getSource(), filterManifest.keySet());
-
-                moveItem(filterManifest.values().stream().filter(entry -> sourceManifest.count(entry.key()) > entry.count()), false);
-                if (!isProcessing()) {
+                for (InventoryManifest.ManifestEntry entry : filterManifest.values()) {
+                    int excess = sourceManifest.count(entry.key()) - entry.count();
+                    if (excess > 0)
+                        budget -= moveItems(StackFilters.matches(entry.key().get()), Math.min(budget, excess), null);
+                    if (budget <= 0)
+                        break;
+                }
+                if (budget > 0) {
                     Predicate<ItemStack> keep = filterManifest.keySet().stream()
                             .map(e -> StackFilters.matches(e.get())).reduce(StackFilters.none(), Predicate::or);
 
-                    ItemStack moved = InvTools.moveOneItemExcept(getSource(), getDestination(), keep);
-                    itemMoved(moved, null);
+                    moveItems(keep.negate(), budget, null);
                 }
                 break;
             }
         }
     }
 
+    /**
+     * Moves up to limit items matching the filter, a stack at a time.
+     *
+     * @return the number of items moved
+     */
+    protected int moveItems(Predicate<ItemStack> filter, int limit, @Nullable StackKey key) {
+        int moved = 0;
+        while (moved < limit) {
+            ItemStack stack = InvTools.moveItems(getSource(), getDestination(), filter, limit - moved);
+            if (!itemMoved(stack, key))
+                break;
+            moved += InvTools.sizeOf(stack);
+        }
+        itemsMoved += moved;
+        return moved;
+    }
+
     @Override
     protected boolean hasWorkForCart(EntityMinecart cart) {
         IInventoryComposite cartInv = InventoryComposite.of(InventoryFactory.get(cart, getFacing().getOpposite()));
@@ -198,19 +238,11 @@ public abstract class TileItemManipulator extends TileManipulatorCart {
         return modeHasWork.get(getMode()).test(this);
     }
 
-    protected void moveItem(Stream<InventoryManifest.ManifestEntry> stream, boolean track) {
-        //noinspection ResultOfMethodCallIgnored
-        stream.anyMatch(entry -> {
-            ItemStack moved = InvTools.moveOneItem(getSource(), getDestination(), StackFilters.matches(entry.key().get()));
-            return itemMoved(moved, track ? entry.key() : null);
-        });
-    }
-
     protected boolean itemMoved(@Nullable ItemStack remaining, @Nullable StackKey key) {
         if (!InvTools.isEmpty(remaining)) {
             setProcessing(true);
             if (key != null)
-                transferredItems.add(key);
+                transferredItems.add(key, InvTools.sizeOf(remaining));
             return true;
         }
         return false;
@@ -222,6 +254,14 @@ public abstract class TileItemManipulator extends TileManipulatorCart {
         return cartInv != null && cartInv.getNumSlots() > 0 && super.canHandleCart(cart);
     }
 
+    @Override
+    public List<String> getDebugOutput() {
+        List<String> debug = super.getDebugOutput();
+        debug.add("Item Limit Per Tick: " + RailcraftConfig.getItemManipulatorRate());
+        debug.add("Items Moved Last Cart Tick: " + itemsMoved);
+        return debug;
+    }
+
     public final EnumTransferMode getMode() {
         return transferModeController.getButtonState();
     }
@@ -13,6 +13,7 @@ import buildcraft.api.statements.IActionExternal;
 import mods.railcraft.api.carts.CartToolsAPI;
 import mods.railcraft.common.blocks.interfaces.ITileRedstoneEmitter;
 import mods.railcraft.common.blocks.tracks.TrackTools;
+import mods.railcraft.common.carts.CartPositionIndex;
 import mods.railcraft.common.carts.CartTools;
 import mods.railcraft.common.gui.buttons.IButtonTextureSet;
 import mods.railcraft.common.gui.buttons.IMultiButtonState;
@@ -40,10 +41,12 @@ import net.minecraft.init.Blocks;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.TextFormatting;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.util.Collections;
 
 /**
  * @author CovertJaguar <http://www.railcraft.info>
@@ -60,6 +63,8 @@ public abstract class TileManipulatorCart extends TileManipulator implements IHa
     private boolean processing;
     private int pause;
     protected int resetTimer;
+    private @Nullable CartPositionIndex.Watch watch;
+    private @Nullable BlockPos watchedPos;
 
     public EnumRedstoneMode[] getValidRedstoneModes() {
         return EnumRedstoneMode.values();
@@ -158,6 +163,7 @@ public abstract class TileManipulatorCart extends TileManipulator implements IHa
             sendCartGateAction = true;
         if (action == Actions.PAUSE)
             pause = PAUSE_DELAY;
+        wake();
     }
 
     public boolean isSendCartGateAction() {
@@ -168,6 +174,13 @@ public abstract class TileManipulatorCart extends TileManipulator implements IHa
         sendCartGateAction = false;
     }
 
+    /**
+     * Returns true if the manipulator has nothing to do between carts, so it can sleep until one arrives.
+     */
+    protected boolean canSleepWithoutCart() {
+        return false;
+    }
+
     public boolean isPaused() {
         return pause > 0;
     }
@@ -186,7 +199,7 @@ public abstract class TileManipulatorCart extends TileManipulator implements IHa
     @Override
     public final void update() {
         super.update();
-        if (Game.isClient(getWorld()))
+        if (Game.isClient(getWorld()) || isSleeping())
             return;
 
         upkeep();
@@ -215,6 +228,8 @@ public abstract class TileManipulatorCart extends TileManipulator implements IHa
         // We are alone
         if (cart == null) {
             onNoCart();
+            if (pause == 0 && canSleepWithoutCart() && watchCart())
+                sleep(0);
             return;
         }
 
@@ -246,6 +261,39 @@ public abstract class TileManipulatorCart extends TileManipulator implements IHa
     protected void upkeep() {
     }
 
+    /**
+     * Makes sure a cart arriving in front of us wakes us up, returns false if it can't.
+     */
+    private boolean watchCart() {
+        BlockPos pos = getPos().offset(facing);
+        if (watch == null || watch.isReleased() || !pos.equals(watchedPos)) {
+            releaseWatch();
+            watch = CartPositionIndex.INSTANCE.watch(world, Collections.singleton(pos));
+            watch.setListener(this::wake);
+            watchedPos = pos;
+        }
+        return !watch.isOccupied();
+    }
+
+    private void releaseWatch() {
+        if (watch != null) {
+            watch.release();
+            watch = null;
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        releaseWatch();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        releaseWatch();
+    }
+
     protected abstract void processCart(EntityMinecart cart);
 
     @Override
@@ -227,6 +227,20 @@ public abstract class TileActuatorBase extends TileMachineBase implements ISwitc
     protected void setPowered(boolean p) {
         powered = p;
         sendUpdateToClient();
+        notifySwitches();
+    }
+
+    /**
+     * Wakes the adjacent switch tracks so they ask us again, call whenever shouldSwitch() may have changed.
+     */
+    protected void notifySwitches() {
+        if (Game.isClient(world))
+            return;
+        for (EnumFacing side : EnumFacing.HORIZONTALS) {
+            TrackKitSwitch trackSwitch = TrackTools.getTrackInstance(tileCache.getTileOnSide(side), TrackKitSwitch.class);
+            if (trackSwitch != null)
+                trackSwitch.wake();
+        }
     }
 
     protected boolean isBeingPoweredByRedstone() {
@@ -65,6 +65,7 @@ public class TileActuatorMotor extends TileActuatorSecured implements ITileAspec
         boolean active = isSwitchAspect();
         if (switchAspect != active) {
             switchAspect = active;
+            notifySwitches();
         }
     }
 
@@ -149,6 +150,7 @@ public class TileActuatorMotor extends TileActuatorSecured implements ITileAspec
         super.readGuiData(data, sender);
         switchOnAspects = data.readBitSet();
         switchOnRedstone = data.readBoolean();
+        notifySwitches();
     }
 
     @Override
@@ -177,5 +179,6 @@ public class TileActuatorMotor extends TileActuatorSecured implements ITileAspec
 
     public void setSwitchOnRedstone(boolean switchOnRedstone) {
         this.switchOnRedstone = switchOnRedstone;
+        notifySwitches();
     }
 }
\ No newline at end of file
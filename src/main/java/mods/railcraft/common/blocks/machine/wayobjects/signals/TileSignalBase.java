@@ -18,6 +18,7 @@ import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.MiscTools;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
+import mods.railcraft.common.util.network.SyncedFields;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.item.ItemStack;
@@ -111,6 +112,16 @@ public abstract class TileSignalBase extends TileMachineBase implements IAspectP
         facing = EnumFacing.byIndex(data.getByte("Facing"));
     }
 
+    /**
+     * Declares signal state that is synced on its own, the block is redrawn whenever it arrives.
+     */
+    protected final void addSyncedState(SyncedFields.Writer writer, SyncedFields.Reader reader) {
+        syncedFields.add(writer, data -> {
+            reader.read(data);
+            markBlockForUpdate();
+        });
+    }
+
     @Override
     public void writePacketData(RailcraftOutputStream data) throws IOException {
         super.writePacketData(data);
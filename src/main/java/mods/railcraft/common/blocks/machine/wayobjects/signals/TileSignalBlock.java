@@ -12,18 +12,19 @@ package mods.railcraft.common.blocks.machine.wayobjects.signals;
 import mods.railcraft.api.signals.*;
 import mods.railcraft.common.blocks.machine.IEnumMachine;
 import mods.railcraft.common.util.misc.Game;
-import mods.railcraft.common.util.network.RailcraftInputStream;
-import mods.railcraft.common.util.network.RailcraftOutputStream;
 import net.minecraft.nbt.NBTTagCompound;
 import org.apache.logging.log4j.Level;
 
-import java.io.IOException;
-
 public class TileSignalBlock extends TileSignalBase implements IControllerTile, ISignalTileBlock {
 
     private final SimpleSignalController controller = new SimpleSignalController(getLocalizationTag(), this);
     private final SignalBlock signalBlock = new SignalBlockSimple(getLocalizationTag(), this);
 
+    public TileSignalBlock() {
+        addSyncedState(controller::writePacketData, controller::readPacketData);
+        addSyncedState(signalBlock::writePacketData, signalBlock::readPacketData);
+    }
+
     @Override
     public IEnumMachine<?> getMachineType() {
         return SignalVariant.BLOCK;
@@ -81,20 +82,6 @@ public class TileSignalBlock extends TileSignalBase implements IControllerTile,
         }
     }
 
-    @Override
-    public void writePacketData(RailcraftOutputStream data) throws IOException {
-        super.writePacketData(data);
-        controller.writePacketData(data);
-        signalBlock.writePacketData(data);
-    }
-
-    @Override
-    public void readPacketData(RailcraftInputStream data) throws IOException {
-        super.readPacketData(data);
-        controller.readPacketData(data);
-        signalBlock.readPacketData(data);
-    }
-
     @Override
     public SimpleSignalController getController() {
         return controller;
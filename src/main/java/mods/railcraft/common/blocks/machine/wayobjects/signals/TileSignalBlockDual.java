@@ -12,16 +12,16 @@ package mods.railcraft.common.blocks.machine.wayobjects.signals;
 import mods.railcraft.api.signals.*;
 import mods.railcraft.common.blocks.machine.IEnumMachine;
 import mods.railcraft.common.util.misc.Game;
-import mods.railcraft.common.util.network.RailcraftInputStream;
-import mods.railcraft.common.util.network.RailcraftOutputStream;
 import net.minecraft.nbt.NBTTagCompound;
 
-import java.io.IOException;
-
 public class TileSignalBlockDual extends TileSignalBlock implements IReceiverTile, IDualHeadSignal {
 
     private final SimpleSignalReceiver receiver = new SimpleSignalReceiver(getLocalizationTag(), this);
 
+    public TileSignalBlockDual() {
+        addSyncedState(receiver::writePacketData, receiver::readPacketData);
+    }
+
     @Override
     public IEnumMachine<?> getMachineType() {
         return SignalDualVariant.BLOCK;
@@ -60,20 +60,6 @@ public class TileSignalBlockDual extends TileSignalBlock implements IReceiverTil
         receiver.readFromNBT(data);
     }
 
-    @Override
-    public void writePacketData(RailcraftOutputStream data) throws IOException {
-        super.writePacketData(data);
-
-        receiver.writePacketData(data);
-    }
-
-    @Override
-    public void readPacketData(RailcraftInputStream data) throws IOException {
-        super.readPacketData(data);
-
-        receiver.readPacketData(data);
-    }
-
     @Override
     public SimpleSignalReceiver getReceiver() {
         return receiver;
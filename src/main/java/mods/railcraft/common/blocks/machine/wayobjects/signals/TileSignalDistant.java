@@ -12,16 +12,15 @@ package mods.railcraft.common.blocks.machine.wayobjects.signals;
 import mods.railcraft.api.signals.*;
 import mods.railcraft.common.blocks.machine.IEnumMachine;
 import mods.railcraft.common.util.misc.Game;
-import mods.railcraft.common.util.network.RailcraftInputStream;
-import mods.railcraft.common.util.network.RailcraftOutputStream;
 import net.minecraft.nbt.NBTTagCompound;
 
-import java.io.IOException;
-
 public class TileSignalDistant extends TileSignalBase implements IReceiverTile {
 
     private final SimpleSignalReceiver receiver = new SimpleSignalReceiver(getLocalizationTag(), this);
 
+    public TileSignalDistant() {
+        addSyncedState(receiver::writePacketData, receiver::readPacketData);
+    }
 
     @Override
     public IEnumMachine<?> getMachineType() {
@@ -58,18 +57,6 @@ public class TileSignalDistant extends TileSignalBase implements IReceiverTile {
         receiver.readFromNBT(data);
     }
 
-    @Override
-    public void writePacketData(RailcraftOutputStream data) throws IOException {
-        super.writePacketData(data);
-        receiver.writePacketData(data);
-    }
-
-    @Override
-    public void readPacketData(RailcraftInputStream data) throws IOException {
-        super.readPacketData(data);
-        receiver.readPacketData(data);
-    }
-
     @Override
     public SignalReceiver getReceiver() {
         return receiver;
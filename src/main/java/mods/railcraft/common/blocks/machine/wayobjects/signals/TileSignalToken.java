@@ -38,6 +38,10 @@ public class TileSignalToken extends TileSignalBase implements IControllerTile,
     private final TrackLocator trackLocator = new TrackLocator(this);
     private final TimerBag<UUID> cartTimers = new TimerBag<>(8);
 
+    public TileSignalToken() {
+        addSyncedState(controller::writePacketData, controller::readPacketData);
+    }
+
     @Override
     public IEnumMachine<?> getMachineType() {
         return SignalVariant.TOKEN;
@@ -103,7 +107,6 @@ public class TileSignalToken extends TileSignalBase implements IControllerTile,
     @Override
     public void writePacketData(RailcraftOutputStream data) throws IOException {
         super.writePacketData(data);
-        controller.writePacketData(data);
         data.writeBlockPos(getTokenRing().centroid());
         data.writeUUID(tokenRingUUID);
     }
@@ -111,7 +114,6 @@ public class TileSignalToken extends TileSignalBase implements IControllerTile,
     @Override
     public void readPacketData(RailcraftInputStream data) throws IOException {
         super.readPacketData(data);
-        controller.readPacketData(data);
         centroid = data.readBlockPos();
         tokenRingUUID = data.readUUID();
     }
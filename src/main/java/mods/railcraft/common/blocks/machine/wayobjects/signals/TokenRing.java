@@ -11,18 +11,18 @@ package mods.railcraft.common.blocks.machine.wayobjects.signals;
 
 import mods.railcraft.api.signals.ITokenRing;
 import mods.railcraft.api.signals.SignalAspect;
+import mods.railcraft.common.carts.CartTools;
 import mods.railcraft.common.plugins.forge.WorldPlugin;
-import mods.railcraft.common.util.entity.EntitySearcher;
 import mods.railcraft.common.util.misc.AABBFactory;
 import net.minecraft.block.state.IBlockState;
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityMinecart;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Created by CovertJaguar on 4/23/2015 for Railcraft.
@@ -35,6 +35,9 @@ public class TokenRing implements ITokenRing {
     private final Set<BlockPos> signals = new HashSet<>();
     private final Set<UUID> trackedCarts = new HashSet<>();
     private BlockPos centroid = BlockPos.ORIGIN;
+    private @Nullable AxisAlignedBB bounds;
+    private int lastScanCarts;
+    private long lastScanNanos;
     private final TokenManager.TokenWorldManager manager;
     private boolean isPairing;
 
@@ -78,17 +81,36 @@ public class TokenRing implements ITokenRing {
         return false;
     }
 
+    /**
+     * Forgets the tracked carts that left the area around the signals or the world.
+     *
+     * Only the tracked carts are looked up, by UUID, so the cost depends on the number of carts
+     * in the block rather than on the volume the signals span.
+     */
     public void tick(World world) {
-        if (!signals.isEmpty()) {
-            BlockPos origin = signals.stream().findAny().orElse(BlockPos.ORIGIN);
-            AABBFactory aabbFactory = AABBFactory.start().createBoxForTileAt(origin);
-            for (BlockPos pos : signals) {
-                aabbFactory.expandToCoordinate(pos);
-            }
-            aabbFactory.grow(16).clampToWorld();
-            List<EntityMinecart> carts = EntitySearcher.findMinecarts().around(aabbFactory.build()).in(world);
-            trackedCarts.retainAll(carts.stream().map(Entity::getUniqueID).collect(Collectors.toSet()));
+        long start = System.nanoTime();
+        lastScanCarts = trackedCarts.size();
+        if (bounds != null && !trackedCarts.isEmpty()) {
+            trackedCarts.removeIf(id -> {
+                EntityMinecart cart = CartTools.getCartFromUUID(world, id);
+                return cart == null || !cart.getEntityBoundingBox().intersects(bounds);
+            });
         }
+        lastScanNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * The number of carts checked by the last {@link #tick(World)}.
+     */
+    public int getLastScanCarts() {
+        return lastScanCarts;
+    }
+
+    /**
+     * The time the last {@link #tick(World)} took, in nanoseconds.
+     */
+    public long getLastScanNanos() {
+        return lastScanNanos;
     }
 
     public boolean isOrphaned(World world) {
@@ -103,6 +125,7 @@ public class TokenRing implements ITokenRing {
     void loadSignals(Collection<BlockPos> signals) {
         this.signals.addAll(signals);
         centroid = calculateCentroid();
+        bounds = calculateBounds();
     }
 
     void loadCarts(Collection<UUID> carts) {
@@ -126,6 +149,7 @@ public class TokenRing implements ITokenRing {
     private void signalsChanged() {
         manager.markDirty();
         centroid = calculateCentroid();
+        bounds = calculateBounds();
     }
 
     public void markCart(EntityMinecart cart) {
@@ -162,6 +186,16 @@ public class TokenRing implements ITokenRing {
         return centroid;
     }
 
+    private @Nullable AxisAlignedBB calculateBounds() {
+        if (signals.isEmpty())
+            return null;
+        AABBFactory aabbFactory = AABBFactory.start().createBoxForTileAt(signals.iterator().next());
+        for (BlockPos pos : signals) {
+            aabbFactory.expandToCoordinate(pos);
+        }
+        return aabbFactory.grow(16).clampToWorld().build();
+    }
+
     private BlockPos calculateCentroid() {
         double x = 0;
         double y = 0;
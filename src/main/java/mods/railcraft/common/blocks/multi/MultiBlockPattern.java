@@ -128,28 +128,35 @@ public final class MultiBlockPattern {
     }
 
     public State testPattern(TileMultiBlock tile) {
+        return testPattern(tile, new BlockPos.MutableBlockPos());
+    }
+
+    /**
+     * Tests the pattern with the tile as master.
+     *
+     * @param failedCell Set to the cell that was not loaded or did not match when the test fails
+     */
+    State testPattern(TileMultiBlock tile, BlockPos.MutableBlockPos failedCell) {
         int xWidth = getPatternWidthX();
         int zWidth = getPatternWidthZ();
         int height = getPatternHeight();
 
         BlockPos offset = tile.getPos().subtract(getMasterOffset());
 
-        BlockPos.PooledMutableBlockPos now = BlockPos.PooledMutableBlockPos.retain();
         for (int patX = 0; patX < xWidth; patX++) {
             for (int patY = 0; patY < height; patY++) {
                 for (int patZ = 0; patZ < zWidth; patZ++) {
                     int x = patX + offset.getX();
                     int y = patY + offset.getY();
                     int z = patZ + offset.getZ();
-                    now.setPos(x, y, z);
-                    if (!tile.getWorld().isBlockLoaded(now))
+                    failedCell.setPos(x, y, z);
+                    if (!tile.getWorld().isBlockLoaded(failedCell))
                         return State.NOT_LOADED;
-                    if (!tile.isMapPositionValid(now, getPatternMarker(patX, patY, patZ)))
+                    if (!tile.isMapPositionValid(failedCell, getPatternMarker(patX, patY, patZ)))
                         return State.PATTERN_DOES_NOT_MATCH;
                 }
             }
         }
-        now.release();
 
         AxisAlignedBB entityCheckBounds = getEntityCheckBounds(tile.getPos());
 //                if(entityCheckBounds != null) {
@@ -0,0 +1,274 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.blocks.multi;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import mods.railcraft.common.util.misc.Game;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Remembers why a multiblock pattern failed to match at a master position.
+ *
+ * A failed match is decided by a single cell, either the first one that didn't match or the first
+ * one that wasn't loaded. As long as that cell is unchanged the match will fail again, so retesting
+ * only has to look at that cell. Results are dropped when a block update hits their deciding cell or
+ * their master position, or when the chunk holding an unloaded deciding cell loads, which is what
+ * wakes up the tiles waiting on them. They are forgotten when the chunk of their master unloads.
+ */
+public enum StructureCache implements IWorldEventListener {
+    INSTANCE;
+    private final Map<World, WorldCache> worlds = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * Tests the pattern with the tile as master, reusing the last failed result where it still holds.
+     */
+    Result test(TileMultiBlock tile, MultiBlockPattern pattern) {
+        WorldCache cache = worlds.get(tile.getWorld());
+        if (cache == null)
+            return scan(tile, pattern);
+        Key key = new Key(tile.getPos().toLong(), pattern);
+        Result result = cache.results.get(key);
+        if (result != null) {
+            if (result.holds(tile))
+                return result;
+            cache.remove(result);
+        }
+        result = scan(tile, pattern);
+        if (result.cell != null)
+            cache.add(key, result);
+        return result;
+    }
+
+    private Result scan(TileMultiBlock tile, MultiBlockPattern pattern) {
+        BlockPos.MutableBlockPos cell = new BlockPos.MutableBlockPos();
+        MultiBlockPattern.State state = pattern.testPattern(tile, cell);
+        switch (state) {
+            case NOT_LOADED:
+            case PATTERN_DOES_NOT_MATCH:
+                return new Result(tile.getPos().toLong(), pattern, state, cell.toImmutable());
+            default:
+                return new Result(tile.getPos().toLong(), pattern, state, null);
+        }
+    }
+
+    /**
+     * Returns true if any of the results has been dropped since it was returned.
+     */
+    static boolean isAnyStale(List<Result> results) {
+        for (Result result : results) {
+            if (result.stale)
+                return true;
+        }
+        return false;
+    }
+
+    @SubscribeEvent
+    public void onWorldLoad(WorldEvent.Load event) {
+        World world = event.getWorld();
+        if (Game.isHost(world)) {
+            worlds.put(world, new WorldCache());
+            world.addEventListener(this);
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        WorldCache cache = worlds.get(event.getWorld());
+        if (cache != null)
+            cache.removeAll(cache.unloaded.remove(ChunkPos.asLong(event.getChunk().x, event.getChunk().z)));
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        WorldCache cache = worlds.get(event.getWorld());
+        if (cache != null)
+            cache.removeAll(cache.byMasterChunk.remove(ChunkPos.asLong(event.getChunk().x, event.getChunk().z)));
+    }
+
+    @Override
+    public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+        if (oldState == newState)
+            return;
+        WorldCache cache = worlds.get(worldIn);
+        if (cache != null)
+            cache.removeAll(cache.byPos.remove(pos.toLong()));
+    }
+
+    static final class Result {
+        private final long master;
+        private final MultiBlockPattern pattern;
+        final MultiBlockPattern.State state;
+        private final @Nullable BlockPos cell;
+        private boolean stale;
+
+        private Result(long master, MultiBlockPattern pattern, MultiBlockPattern.State state, @Nullable BlockPos cell) {
+            this.master = master;
+            this.pattern = pattern;
+            this.state = state;
+            this.cell = cell;
+        }
+
+        private boolean holds(TileMultiBlock tile) {
+            if (cell == null)
+                return false;
+            boolean loaded = tile.getWorld().isBlockLoaded(cell);
+            if (state == MultiBlockPattern.State.NOT_LOADED)
+                return !loaded;
+            BlockPos offset = tile.getPos().subtract(pattern.getMasterOffset());
+            return loaded && !tile.isMapPositionValid(cell, pattern.getPatternMarker(cell.subtract(offset)));
+        }
+    }
+
+    private static final class Key {
+        private final long master;
+        private final MultiBlockPattern pattern;
+
+        private Key(long master, MultiBlockPattern pattern) {
+            this.master = master;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return master == other.master && pattern == other.pattern;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(master) + System.identityHashCode(pattern);
+        }
+    }
+
+    private static final class WorldCache {
+        private final Map<Key, Result> results = new HashMap<>();
+        private final Long2ObjectOpenHashMap<List<Result>> byPos = new Long2ObjectOpenHashMap<>();
+        private final Long2ObjectOpenHashMap<List<Result>> unloaded = new Long2ObjectOpenHashMap<>();
+        private final Long2ObjectOpenHashMap<List<Result>> byMasterChunk = new Long2ObjectOpenHashMap<>();
+
+        private void add(Key key, Result result) {
+            Result old = results.put(key, result);
+            if (old != null)
+                remove(old);
+            index(byPos, result.master, result);
+            index(byMasterChunk, masterChunk(result), result);
+            if (result.cell != null) {
+                if (result.state == MultiBlockPattern.State.NOT_LOADED)
+                    index(unloaded, ChunkPos.asLong(result.cell.getX() >> 4, result.cell.getZ() >> 4), result);
+                else
+                    index(byPos, result.cell.toLong(), result);
+            }
+        }
+
+        private static long masterChunk(Result result) {
+            BlockPos master = BlockPos.fromLong(result.master);
+            return ChunkPos.asLong(master.getX() >> 4, master.getZ() >> 4);
+        }
+
+        private void index(Long2ObjectOpenHashMap<List<Result>> map, long key, Result result) {
+            List<Result> list = map.get(key);
+            if (list == null) {
+                list = new ArrayList<>(2);
+                map.put(key, list);
+            }
+            list.add(result);
+        }
+
+        private void removeAll(@Nullable List<Result> dropped) {
+            if (dropped != null)
+                new ArrayList<>(dropped).forEach(this::remove);
+        }
+
+        private void remove(Result result) {
+            result.stale = true;
+            results.remove(new Key(result.master, result.pattern), result);
+            unindex(byPos, result.master, result);
+            unindex(byMasterChunk, masterChunk(result), result);
+            if (result.cell != null) {
+                if (result.state == MultiBlockPattern.State.NOT_LOADED)
+                    unindex(unloaded, ChunkPos.asLong(result.cell.getX() >> 4, result.cell.getZ() >> 4), result);
+                else
+                    unindex(byPos, result.cell.toLong(), result);
+            }
+        }
+
+        private void unindex(Long2ObjectOpenHashMap<List<Result>> map, long key, Result result) {
+            List<Result> list = map.get(key);
+            if (list != null) {
+                list.remove(result);
+                if (list.isEmpty())
+                    map.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public void notifyLightSet(BlockPos pos) {
+    }
+
+    @Override
+    public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
+    }
+
+    @Override
+    public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch) {
+    }
+
+    @Override
+    public void playRecord(SoundEvent soundIn, BlockPos pos) {
+    }
+
+    @Override
+    public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+    }
+
+    @Override
+    public void spawnParticle(int id, boolean ignoreRange, boolean p_190570_3_, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+    }
+
+    @Override
+    public void onEntityAdded(Entity entityIn) {
+    }
+
+    @Override
+    public void onEntityRemoved(Entity entityIn) {
+    }
+
+    @Override
+    public void broadcastSound(int soundID, BlockPos pos, int data) {
+    }
+
+    @Override
+    public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data) {
+    }
+
+    @Override
+    public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {
+    }
+}
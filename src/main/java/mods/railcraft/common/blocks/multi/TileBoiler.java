@@ -14,12 +14,13 @@ import mods.railcraft.common.fluids.FluidTools;
 import mods.railcraft.common.fluids.Fluids;
 import mods.railcraft.common.fluids.TankManager;
 import mods.railcraft.common.fluids.tanks.FilteredTank;
-import mods.railcraft.common.fluids.tanks.StandardTank;
 import mods.railcraft.common.plugins.forge.WorldPlugin;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.steam.IBoilerContainer;
 import mods.railcraft.common.util.steam.SteamBoiler;
 import mods.railcraft.common.util.steam.SteamConstants;
+import mods.railcraft.common.util.steam.SteamNetwork;
+import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.tileentity.TileEntity;
@@ -232,16 +233,32 @@ public abstract class TileBoiler extends TileMultiBlock implements IBoilerContai
                 explode = false;
                 return;
             }
-            TileBoilerFirebox mBlock = (TileBoilerFirebox) getMasterBlock();
-            if (mBlock != null) {
-                StandardTank tank = mBlock.tankManager.get(TANK_STEAM);
-                FluidStack steam = tank.getFluid();
-                if (steam != null && (!mBlock.boiler.isBoiling() || steam.amount >= tank.getCapacity() / 2))
-                    mBlock.tankManager.push(tileCache, getOutputFilter(), EnumFacing.VALUES, TANK_STEAM, TRANSFER_RATE);
-            }
         }
     }
 
+    @Override
+    public void onNeighborBlockChange(IBlockState state, Block neighborBlock, BlockPos neighborPos) {
+        super.onNeighborBlockChange(state, neighborBlock, neighborPos);
+        TileMultiBlock mBlock = getMasterBlock();
+        if (mBlock instanceof TileBoilerFirebox)
+            ((TileBoilerFirebox) mBlock).steamNetwork.markDirty();
+    }
+
+    @Override
+    public List<String> getDebugOutput() {
+        List<String> debug = super.getDebugOutput();
+        TileMultiBlock mBlock = getMasterBlock();
+        if (mBlock instanceof TileBoilerFirebox) {
+            SteamNetwork network = ((TileBoilerFirebox) mBlock).steamNetwork;
+            debug.add("Steam Outlets: " + network.getOutletCount());
+            debug.add("Steam Throughput: " + network.getThroughput() + " mB/t");
+        }
+        return debug;
+    }
+
+    /**
+     * Returns which of the tiles next to this block may be given steam, see {@link SteamNetwork}.
+     */
     public abstract Predicate<TileEntity> getOutputFilter();
 
     @Override
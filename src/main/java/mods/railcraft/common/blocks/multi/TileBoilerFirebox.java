@@ -12,14 +12,14 @@ package mods.railcraft.common.blocks.multi;
 import mods.railcraft.common.blocks.RailcraftTileEntity;
 import mods.railcraft.common.blocks.interfaces.ITileLit;
 import mods.railcraft.common.fluids.FluidTools;
+import mods.railcraft.common.fluids.tanks.StandardTank;
 import mods.railcraft.common.util.inventory.ItemHandlerFactory;
 import mods.railcraft.common.util.inventory.StandaloneInventory;
 import mods.railcraft.common.util.inventory.wrappers.InventoryMapper;
 import mods.railcraft.common.util.misc.Game;
-import mods.railcraft.common.util.network.RailcraftInputStream;
-import mods.railcraft.common.util.network.RailcraftOutputStream;
 import mods.railcraft.common.util.steam.ISteamUser;
 import mods.railcraft.common.util.steam.SteamBoiler;
+import mods.railcraft.common.util.steam.SteamNetwork;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.IInventory;
@@ -30,12 +30,12 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.items.CapabilityItemHandler;
 
 import javax.annotation.Nullable;
-import java.io.IOException;
 import java.util.Random;
 import java.util.function.Predicate;
 
@@ -51,6 +51,7 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
     protected static final int SLOT_LIQUID_INPUT = 0;
     protected static final int SLOT_LIQUID_OUTPUT = 1;
     public final SteamBoiler boiler;
+    protected final SteamNetwork steamNetwork;
     private boolean wasLit;
     protected final StandaloneInventory inventory;
     protected final InventoryMapper invWaterInput = InventoryMapper.make(this, SLOT_LIQUID_INPUT, 1);
@@ -60,6 +61,9 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
         inventory = new StandaloneInventory(invSize, (IInventory) this);
         boiler = new SteamBoiler(tankWater, tankSteam);
         boiler.setTile(this);
+        steamNetwork = new SteamNetwork(this, tankSteam, TRANSFER_RATE,
+                (member, tile) -> member instanceof TileBoiler && ((TileBoiler) member).getOutputFilter().test(tile));
+        syncedFields.add(data -> data.writeBoolean(boiler.isBurning()), data -> boiler.setBurning(data.readBoolean()));
     }
 
     @Override
@@ -69,6 +73,7 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
         tankManager.setCapacity(TANK_WATER, capacity * 4);
         boiler.setMaxHeat(pattern.getAttachedData(BoilerData.EMPTY).maxHeat);
         boiler.setTicksPerCycle(pattern.getAttachedData(BoilerData.EMPTY).ticksPerCycle);
+        steamNetwork.markDirty();
     }
 
     public boolean isBurning() {
@@ -132,6 +137,7 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
 
         if (!isMaster || getState() == MultiBlockState.INVALID) {
             boiler.reduceHeat(getNumTanks());
+            steamNetwork.unregister();
             return;
         }
 
@@ -140,6 +146,8 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
 
             boiler.tick(getNumTanks());
 
+            steamNetwork.tick(getComponents(), this::canPushSteam);
+
             if (clock % FluidTools.BUCKET_FILL_TIME == 0)
                 processBuckets();
         }
@@ -147,6 +155,12 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
 
     protected abstract void process();
 
+    private boolean canPushSteam() {
+        StandardTank tank = tankManager.get(TANK_STEAM);
+        FluidStack steam = tank.getFluid();
+        return steam != null && (!boiler.isBoiling() || steam.amount >= tank.getCapacity() / 2);
+    }
+
     protected void processBuckets() {
         FluidTools.drainContainers(tankManager, inventory, SLOT_LIQUID_INPUT, SLOT_LIQUID_OUTPUT);
     }
@@ -166,6 +180,19 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
     private void reset() {
         tankManager.get(TANK_STEAM).setFluid(null);
         boiler.reset();
+        steamNetwork.unregister();
+    }
+
+    @Override
+    public void invalidate() {
+        steamNetwork.unregister();
+        super.invalidate();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        steamNetwork.unregister();
+        super.onChunkUnload();
     }
 
     @Override
@@ -187,20 +214,6 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
         boiler.readFromNBT(data);
     }
 
-    @Override
-    public void writePacketData(RailcraftOutputStream data) throws IOException {
-        super.writePacketData(data);
-//        tankManager.writePacketData(data);
-        data.writeBoolean(boiler.isBurning());
-    }
-
-    @Override
-    public void readPacketData(RailcraftInputStream data) throws IOException {
-        super.readPacketData(data);
-//        tankManager.readPacketData(data);
-        boiler.setBurning(data.readBoolean());
-    }
-
     @Override
     public ItemStack decrStackSize(int i, int j) {
         TileBoilerFirebox mBlock = (TileBoilerFirebox) getMasterBlock();
@@ -169,6 +169,9 @@ public final class TileCokeOven extends TileMultiBlockOven implements ISidedInve
     public void update() {
         super.update();
 
+        if (isSleeping())
+            return;
+
         if (Game.isHost(getWorld()))
             if (isMaster()) {
                 if (clock > finishedAt + COOK_STEP_LENGTH + 5)
@@ -59,6 +59,7 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
     private @Nullable TileMultiBlock masterBlock;
     private MultiBlockPattern currentPattern;
     private @Nullable UUID uuidMaster;
+    private @Nullable List<StructureCache.Result> testResults;
 
     protected TileMultiBlock(List<? extends MultiBlockPattern> patterns) {
         this.patterns = patterns;
@@ -89,6 +90,7 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
             onMasterChanged();
 
         this.uuidMaster = master.getUUID();
+        wake();
     }
 
     protected void onPatternLock(MultiBlockPattern pattern) {
@@ -147,8 +149,12 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
     public void update() {
         super.update();
         if (Game.isHost(world)) {
-            if (state == MultiBlockState.UNKNOWN && clock % UNKNOWN_STATE_RECHECK == 0)
+            if (isSleeping())
+                return;
+            if (state == MultiBlockState.UNKNOWN && (testResults == null || StructureCache.isAnyStale(testResults) || clock % UNKNOWN_STATE_RECHECK == 0))
                 testIfMasterBlock(); //                ClientProxy.getMod().totalMultiBlockUpdates++;
+            else if (state == MultiBlockState.VALID && !isMaster)
+                sleep(0); // Nothing to do until the master retests us
         } else if (requestPacket && netTimer.hasTriggered(world, NETWORK_RECHECK)) {
             PacketDispatcher.sendToServer(new PacketTileRequest(this));
             requestPacket = false;
@@ -255,9 +261,26 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
         return true;
     }
 
+    /**
+     * Failed results are shared through the {@link StructureCache}, the tile is retested as soon as one of
+     * them is dropped. The {@link #UNKNOWN_STATE_RECHECK} timer remains as a fallback for block changes
+     * that don't notify the world listeners.
+     */
     private void testPatterns() {
         patternStates.clear();
-        patterns.forEach(map -> patternStates.put(map.testPattern(this), map));
+        List<StructureCache.Result> results = new ArrayList<>(patterns.size());
+        for (MultiBlockPattern map : patterns) {
+            StructureCache.Result result = StructureCache.INSTANCE.test(this, map);
+            results.add(result);
+            patternStates.put(result.state, map);
+        }
+        testResults = results;
+    }
+
+    private void markUnknown() {
+        state = MultiBlockState.UNKNOWN;
+        testResults = null;
+        wake();
     }
 
     @Override
@@ -277,7 +300,7 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
     public void onChunkUnload() {
         super.onChunkUnload();
         if (Game.isClient(world)) return;
-        state = MultiBlockState.UNKNOWN;
+        markUnknown();
         scheduleMasterRetest();
     }
 
@@ -285,7 +308,7 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
     @OverridingMethodsMustInvokeSuper
     public void invalidate() {
         if (world == null || Game.isHost(world)) {
-            state = MultiBlockState.UNKNOWN;
+            markUnknown();
             scheduleMasterRetest();
         }
         super.invalidate();
@@ -304,7 +327,7 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
         if (depth < 0)
             return;
         if (state != MultiBlockState.UNKNOWN) {
-            state = MultiBlockState.UNKNOWN;
+            markUnknown();
 
             TileMultiBlock mBlock = getMasterBlock();
             if (mBlock != null) {
@@ -437,13 +460,14 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
 
     public final void setMaster(boolean m) {
         isMaster = m;
+        wake();
     }
 
     public final void scheduleMasterRetest() {
         if (Game.isClient(world))
             return;
         if (masterBlock != null)
-            masterBlock.state = MultiBlockState.UNKNOWN;
+            masterBlock.markUnknown();
     }
 
     @Override
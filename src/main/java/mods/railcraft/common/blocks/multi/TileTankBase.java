@@ -26,8 +26,6 @@ import mods.railcraft.common.plugins.forge.WorldPlugin;
 import mods.railcraft.common.util.inventory.StandaloneInventory;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.Timer;
-import mods.railcraft.common.util.network.RailcraftInputStream;
-import mods.railcraft.common.util.network.RailcraftOutputStream;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
@@ -48,7 +46,6 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -73,6 +70,7 @@ public abstract class TileTankBase extends TileMultiBlock implements ITankTile {
         super(patterns);
         inv = new StandaloneInventory(2, "gui.tank.iron", this);
         tankManager.add(tank);
+        syncedFields.add(tankManager::writePacketData, tankManager::readPacketData);
     }
 
     public static void placeIronTank(World world, BlockPos pos, int patternIndex, FluidStack fluid) {
@@ -490,6 +488,9 @@ public abstract class TileTankBase extends TileMultiBlock implements ITankTile {
     public void update() {
         super.update();
 
+        if (isSleeping())
+            return;
+
         if (Game.isHost(world))
             if (isMaster) {
 
@@ -525,18 +526,6 @@ public abstract class TileTankBase extends TileMultiBlock implements ITankTile {
         inv.readFromNBT("inv", data);
     }
 
-    @Override
-    public void writePacketData(RailcraftOutputStream data) throws IOException {
-        super.writePacketData(data);
-        tankManager.writePacketData(data);
-    }
-
-    @Override
-    public void readPacketData(RailcraftInputStream data) throws IOException {
-        super.readPacketData(data);
-        tankManager.readPacketData(data);
-    }
-
     @Override
     public double getMaxRenderDistanceSquared() {
         return Short.MAX_VALUE;
@@ -18,7 +18,6 @@ import mods.railcraft.common.carts.CartTools;
 import mods.railcraft.common.core.RailcraftConfig;
 import net.minecraft.block.BlockRailBase;
 import net.minecraft.entity.item.EntityMinecart;
-import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
@@ -42,7 +41,7 @@ public final class HighSpeedTools {
     }
 
     public static boolean isTrackSafeForHighSpeed(World world, BlockPos pos, EntityMinecart cart) {
-        if (!isHighSpeedTrackAt(world, pos))
+        if (!TrackTopology.INSTANCE.isHighSpeedTrackAt(world, pos))
             return false;
         BlockRailBase.EnumRailDirection dir = TrackTools.getTrackDirection(world, pos, cart);
         if (!TrackShapeHelper.isStraight(dir)) {
@@ -63,7 +62,7 @@ public final class HighSpeedTools {
     }
 
     private static boolean isTrackHighSpeedCapable(World world, BlockPos pos) {
-        return !world.isBlockLoaded(pos) || isHighSpeedTrackAt(world, pos);
+        return !world.isBlockLoaded(pos) || TrackTopology.INSTANCE.isHighSpeedTrackAt(world, pos);
     }
 
     private static void limitSpeed(EntityMinecart cart) {
@@ -98,26 +97,12 @@ public final class HighSpeedTools {
     public static float speedForNextTrack(World world, BlockPos pos, int dist, @Nullable EntityMinecart cart) {
         float maxSpeed = RailcraftConfig.getMaxHighSpeed();
         if (dist < LOOK_AHEAD_DIST)
-            for (EnumFacing side : EnumFacing.HORIZONTALS) {
-                BlockPos nextPos = pos.offset(side);
-                boolean foundTrack = TrackTools.isRailBlockAt(world, nextPos);
-                if (!foundTrack) {
-                    if (TrackTools.isRailBlockAt(world, nextPos.up())) {
-                        foundTrack = true;
-                        nextPos = nextPos.up();
-                    } else if (TrackTools.isRailBlockAt(world, nextPos.down())) {
-                        foundTrack = true;
-                        nextPos = nextPos.down();
-                    }
-                }
-                if (foundTrack) {
-                    BlockRailBase.EnumRailDirection dir = TrackTools.getTrackDirection(world, nextPos, cart);
-                    if (dir.isAscending())
-                        return SPEED_SLOPE;
-                    maxSpeed = speedForNextTrack(world, nextPos, dist + 1, cart);
-                    if (maxSpeed == SPEED_SLOPE)
-                        return SPEED_SLOPE;
-                }
+            for (BlockPos nextPos : TrackTopology.INSTANCE.getSuccessors(world, pos)) {
+                if (TrackTopology.INSTANCE.isAscending(world, nextPos, cart))
+                    return SPEED_SLOPE;
+                maxSpeed = speedForNextTrack(world, nextPos, dist + 1, cart);
+                if (maxSpeed == SPEED_SLOPE)
+                    return SPEED_SLOPE;
             }
 
         return maxSpeed;
@@ -0,0 +1,223 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.blocks.tracks.behaivor;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import mods.railcraft.common.blocks.tracks.TrackTools;
+import mods.railcraft.common.util.misc.Game;
+import net.minecraft.block.BlockRailBase;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers what the high speed checks need to know about the blocks of server worlds.
+ *
+ * For each position it keeps whether it is high speed track, whether the rail on it slopes and
+ * which rails follow it, the neighbours found the same way the look ahead used to probe for them.
+ * Tile entity tracks can change shape with their kit or the cart on them, so their shape is still
+ * asked every time. A position is forgotten when a block update hits it or any position it may
+ * lead to, and whole chunks are forgotten with their neighbours when they unload. Positions in
+ * unloaded chunks, and the blocks of client worlds, are looked up without being remembered.
+ */
+public enum TrackTopology implements IWorldEventListener {
+    INSTANCE;
+    private static final BlockPos[] NO_SUCCESSORS = new BlockPos[0];
+    private final Map<World, Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Node>>> worlds =
+            new MapMaker().weakKeys().makeMap();
+
+    public boolean isHighSpeedTrackAt(World world, BlockPos pos) {
+        return getNode(world, pos).highSpeed;
+    }
+
+    /**
+     * Returns true if the rail at the position slopes.
+     */
+    public boolean isAscending(World world, BlockPos pos, @Nullable EntityMinecart cart) {
+        Node node = getNode(world, pos);
+        if (node.dynamic)
+            return TrackTools.getTrackDirection(world, pos, cart).isAscending();
+        return node.ascending;
+    }
+
+    /**
+     * Returns the rails next to the position, level with it or a block above or below.
+     */
+    public BlockPos[] getSuccessors(World world, BlockPos pos) {
+        Node node = getNode(world, pos);
+        if (node.successors != null)
+            return node.successors;
+        List<BlockPos> found = new ArrayList<>(4);
+        boolean loaded = true;
+        for (EnumFacing side : EnumFacing.HORIZONTALS) {
+            BlockPos nextPos = pos.offset(side);
+            loaded &= world.isBlockLoaded(nextPos);
+            if (TrackTools.isRailBlockAt(world, nextPos))
+                found.add(nextPos);
+            else if (TrackTools.isRailBlockAt(world, nextPos.up()))
+                found.add(nextPos.up());
+            else if (TrackTools.isRailBlockAt(world, nextPos.down()))
+                found.add(nextPos.down());
+        }
+        BlockPos[] successors = found.isEmpty() ? NO_SUCCESSORS : found.toArray(new BlockPos[0]);
+        if (loaded)
+            node.successors = successors;
+        return successors;
+    }
+
+    private Node getNode(World world, BlockPos pos) {
+        Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Node>> chunks = worlds.get(world);
+        if (chunks == null || !world.isBlockLoaded(pos))
+            return new Node(world, pos);
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        Long2ObjectOpenHashMap<Node> nodes = chunks.get(chunkKey);
+        if (nodes == null) {
+            nodes = new Long2ObjectOpenHashMap<>();
+            chunks.put(chunkKey, nodes);
+        }
+        long key = pos.toLong();
+        Node node = nodes.get(key);
+        if (node == null) {
+            node = new Node(world, pos);
+            nodes.put(key, node);
+        }
+        return node;
+    }
+
+    private void forget(Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Node>> chunks, BlockPos pos) {
+        long chunk = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        Long2ObjectOpenHashMap<Node> nodes = chunks.get(chunk);
+        if (nodes != null)
+            nodes.remove(pos.toLong());
+    }
+
+    @SubscribeEvent
+    public void onWorldLoad(WorldEvent.Load event) {
+        World world = event.getWorld();
+        if (Game.isHost(world)) {
+            worlds.put(world, new Long2ObjectOpenHashMap<>());
+            world.addEventListener(this);
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Node>> chunks = worlds.get(event.getWorld());
+        if (chunks != null) {
+            int x = event.getChunk().x;
+            int z = event.getChunk().z;
+            chunks.remove(ChunkPos.asLong(x, z));
+            chunks.remove(ChunkPos.asLong(x + 1, z));
+            chunks.remove(ChunkPos.asLong(x - 1, z));
+            chunks.remove(ChunkPos.asLong(x, z + 1));
+            chunks.remove(ChunkPos.asLong(x, z - 1));
+        }
+    }
+
+    @Override
+    public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState,
+                                  IBlockState newState, int flags) {
+        if (oldState == newState)
+            return;
+        Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Node>> chunks = worlds.get(worldIn);
+        if (chunks == null)
+            return;
+        forget(chunks, pos);
+        for (EnumFacing side : EnumFacing.HORIZONTALS) {
+            BlockPos neighbor = pos.offset(side);
+            forget(chunks, neighbor);
+            forget(chunks, neighbor.up());
+            forget(chunks, neighbor.down());
+        }
+    }
+
+    private static final class Node {
+        private final boolean highSpeed;
+        private final boolean dynamic;
+        private final boolean ascending;
+        private @Nullable BlockPos[] successors;
+
+        private Node(World world, BlockPos pos) {
+            IBlockState state = world.getBlockState(pos);
+            boolean rail = state.getBlock() instanceof BlockRailBase;
+            highSpeed = TrackTools.getTrackTypeAt(world, pos, state).isHighSpeed();
+            dynamic = rail && state.getBlock().hasTileEntity(state);
+            ascending = rail && !dynamic
+                    && TrackTools.getTrackDirection(world, pos, state).isAscending();
+        }
+    }
+
+    @Override
+    public void notifyLightSet(BlockPos pos) {
+    }
+
+    @Override
+    public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
+    }
+
+    @Override
+    public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn,
+                                         SoundCategory category, double x, double y, double z,
+                                         float volume, float pitch) {
+    }
+
+    @Override
+    public void playRecord(SoundEvent soundIn, BlockPos pos) {
+    }
+
+    @Override
+    public void spawnParticle(int particleID, boolean ignoreRange,
+                              double xCoord, double yCoord, double zCoord,
+                              double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+    }
+
+    @Override
+    public void spawnParticle(int id, boolean ignoreRange, boolean p_190570_3_,
+                              double x, double y, double z,
+                              double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+    }
+
+    @Override
+    public void onEntityAdded(Entity entityIn) {
+    }
+
+    @Override
+    public void onEntityRemoved(Entity entityIn) {
+    }
+
+    @Override
+    public void broadcastSound(int soundID, BlockPos pos, int data) {
+    }
+
+    @Override
+    public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data) {
+    }
+
+    @Override
+    public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {
+    }
+}
@@ -12,6 +12,7 @@ package mods.railcraft.common.blocks.tracks.outfitted;
 import mods.railcraft.api.tracks.*;
 import mods.railcraft.common.blocks.RailcraftTileEntity;
 import mods.railcraft.common.blocks.tracks.behaivor.TrackTypes;
+import mods.railcraft.common.blocks.tracks.outfitted.kits.TrackKitRailcraft;
 import mods.railcraft.common.items.IMagnifiable;
 import mods.railcraft.common.util.network.IGuiReturnHandler;
 import mods.railcraft.common.util.network.RailcraftInputStream;
@@ -20,6 +21,7 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
 
 import java.io.IOException;
+import java.util.List;
 
 public class TileTrackOutfitted extends RailcraftTileEntity implements IOutfittedTrackTile, IGuiReturnHandler, IMagnifiable {
 
@@ -45,6 +47,8 @@ public class TileTrackOutfitted extends RailcraftTileEntity implements IOutfitte
     }
 
     public void setTrackKitInstance(ITrackKitInstance trackKit) {
+        if (trackKitInstance instanceof TrackKitRailcraft)
+            ((TrackKitRailcraft) trackKitInstance).onUnload();
         this.trackKitInstance = trackKit;
         trackKitInstance.setTile(this);
     }
@@ -55,6 +59,28 @@ public class TileTrackOutfitted extends RailcraftTileEntity implements IOutfitte
     }
 
 
+    @Override
+    public void invalidate() {
+        if (trackKitInstance instanceof TrackKitRailcraft)
+            ((TrackKitRailcraft) trackKitInstance).onUnload();
+        super.invalidate();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        if (trackKitInstance instanceof TrackKitRailcraft)
+            ((TrackKitRailcraft) trackKitInstance).onUnload();
+    }
+
+    @Override
+    public List<String> getDebugOutput() {
+        List<String> debug = super.getDebugOutput();
+        if (trackKitInstance instanceof TrackKitRailcraft)
+            debug.addAll(((TrackKitRailcraft) trackKitInstance).getDebugOutput());
+        return debug;
+    }
+
     @Override
     public NBTTagCompound writeToNBT(NBTTagCompound data) {
         super.writeToNBT(data);
@@ -14,6 +14,9 @@ import mods.railcraft.api.tracks.TrackKit;
 import mods.railcraft.api.tracks.TrackKitInstance;
 import mods.railcraft.common.blocks.tracks.outfitted.TrackKits;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author CovertJaguar <http://www.railcraft.info>
  */
@@ -34,4 +37,14 @@ public abstract class TrackKitRailcraft extends TrackKitInstance {
         return true;
     }
 
+    /**
+     * Called when the tile holding this kit is unloaded, invalidated or given another kit.
+     */
+    public void onUnload() {
+    }
+
+    public List<String> getDebugOutput() {
+        return new ArrayList<>();
+    }
+
 }
@@ -14,6 +14,7 @@ import mods.railcraft.api.tracks.ISwitchActuator.ArrowDirection;
 import mods.railcraft.api.tracks.ITrackKitSwitch;
 import mods.railcraft.common.blocks.RailcraftTileEntity;
 import mods.railcraft.common.blocks.tracks.TrackTools;
+import mods.railcraft.common.carts.CartPositionIndex;
 import mods.railcraft.common.carts.CartTools;
 import mods.railcraft.common.carts.Train;
 import mods.railcraft.common.plugins.forge.NBTPlugin;
@@ -41,10 +42,16 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
+ * On the server a switch with no carts around and nothing counting down goes dormant. It then
+ * skips its entity searches until a cart touches the track or one of its entrances, which it
+ * learns from the {@link CartPositionIndex}, or until it is woken by its actuator. Actuators we
+ * don't know about are still polled every {@link #DEVICE_POLL_INTERVAL} ticks.
+ *
  * @author CovertJaguar <http://www.railcraft.info>
  */
 public abstract class TrackKitSwitch extends TrackKitRailcraft implements ITrackKitSwitch {
     private static final int SPRING_DURATION = 30;
+    private static final int DEVICE_POLL_INTERVAL = 16;
     protected boolean mirrored;
     protected boolean shouldSwitch;
     protected Set<UUID> lockingCarts = new HashSet<>();
@@ -55,6 +62,10 @@ public abstract class TrackKitSwitch extends TrackKitRailcraft implements ITrack
     private @Nullable UUID currentCart;
     private @Nullable ISwitchActuator switchDevice;
     private boolean clientSwitched;
+    private @Nullable CartPositionIndex.Watch watch;
+    private boolean dormant;
+    private int activeTicks;
+    private int dormantTicks;
 
     @Override
     public List<ItemStack> getDrops(int fortune) {
@@ -142,6 +153,7 @@ public abstract class TrackKitSwitch extends TrackKitRailcraft implements ITrack
     @Override
     public void onBlockRemoved() {
         super.onBlockRemoved();
+        onUnload();
         // Notify any neighboring switches that we exist so they know to register themselves with us
         ((RailcraftTileEntity) getTile()).notifyBlocksOfNeighborChange();
     }
@@ -189,10 +201,65 @@ public abstract class TrackKitSwitch extends TrackKitRailcraft implements ITrack
         if (Game.isHost(theWorldAsserted())) {
             determineRailDirection();
             determineMirror();
+            wake();
         }
         super.onNeighborBlockChange(state, block);
     }
 
+    /**
+     * Makes a dormant switch run its full update on the next tick.
+     */
+    public void wake() {
+        dormant = false;
+    }
+
+    @Override
+    public void onUnload() {
+        if (watch != null) {
+            watch.release();
+            watch = null;
+        }
+        dormant = false;
+    }
+
+    private CartPositionIndex.Watch getWatch() {
+        if (watch == null || watch.isReleased()) {
+            List<BlockPos> positions = new ArrayList<>();
+            positions.add(getPos());
+            for (EnumFacing side : EnumFacing.HORIZONTALS) {
+                positions.add(getPos().offset(side));
+            }
+            watch = CartPositionIndex.INSTANCE.watch(theWorldAsserted(), positions);
+        }
+        return watch;
+    }
+
+    private boolean shouldWake() {
+        CartPositionIndex.Watch watch = getWatch();
+        if (watch.pollChanged() || watch.isOccupied())
+            return true;
+        if (theWorldAsserted().getTotalWorldTime() % DEVICE_POLL_INTERVAL == 0) {
+            ISwitchActuator device = getSwitchDevice();
+            return device != switchDevice || (device != null && device.shouldSwitch(null)) != shouldSwitch;
+        }
+        return false;
+    }
+
+    private boolean canSleep(List<EntityMinecart> cartsOnTrack) {
+        return locked == 0 && sprung == 0 && cartsOnTrack.isEmpty()
+                && lockingCarts.isEmpty() && springingCarts.isEmpty() && decidingCarts.isEmpty()
+                && !getWatch().isOccupied();
+    }
+
+    @Override
+    public List<String> getDebugOutput() {
+        List<String> debug = super.getDebugOutput();
+        debug.add("Dormant: " + dormant);
+        debug.add("Ticks Active: " + activeTicks);
+        debug.add("Ticks Dormant: " + dormantTicks);
+        return debug;
+    }
+
     private void writeCartsToNBT(String key, Set<UUID> carts, NBTTagCompound data) {
         data.setByte(key + "Size", (byte) carts.size());
         int i = 0;
@@ -281,6 +348,16 @@ public abstract class TrackKitSwitch extends TrackKitRailcraft implements ITrack
     public void update() {
         super.update();
 
+        boolean host = Game.isHost(theWorldAsserted());
+        if (host) {
+            if (dormant && !shouldWake()) {
+                dormantTicks++;
+                return;
+            }
+            dormant = false;
+            activeTicks++;
+        }
+
         boolean wasSwitched = isVisuallySwitched();
 
         if (locked > 0)
@@ -332,6 +409,9 @@ public abstract class TrackKitSwitch extends TrackKitRailcraft implements ITrack
             }
             sendUpdateToClient();
         }
+
+        if (host)
+            dormant = canSleep(cartsOnTrack);
     }
 
     private double crudeDistance(EntityMinecart cart) {
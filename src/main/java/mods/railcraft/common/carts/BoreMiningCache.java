@@ -0,0 +1,93 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.carts;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Remembers what Tunnel Bores have worked out about the block states they dig through.
+ *
+ * Whether a state is mineable only depends on the mineable lists and the ore dictionary, whether
+ * a head can harvest it on the head item and its enchantments. Hardness is remembered for states
+ * without a tile entity, those with one may differ from block to block. Everything is forgotten
+ * when the mineable lists or the ore dictionary change.
+ */
+public enum BoreMiningCache {
+    INSTANCE;
+    private final Map<IBlockState, Boolean> mineable = new ConcurrentHashMap<>();
+    private final Map<IBlockState, Float> hardness = new ConcurrentHashMap<>();
+    private final Map<HeadKey, Map<IBlockState, Boolean>> harvestable = new ConcurrentHashMap<>();
+
+    public boolean isMineable(IBlockState state, Predicate<IBlockState> check) {
+        return mineable.computeIfAbsent(state, check::test);
+    }
+
+    public boolean canHarvest(ItemStack head, IBlockState state, Predicate<IBlockState> check) {
+        HeadKey key = new HeadKey(head.getItem(), head.getEnchantmentTagList());
+        Map<IBlockState, Boolean> decisions = harvestable.get(key);
+        if (decisions == null) {
+            decisions = new ConcurrentHashMap<>();
+            Map<IBlockState, Boolean> existing = harvestable.putIfAbsent(key.copy(), decisions);
+            if (existing != null)
+                decisions = existing;
+        }
+        return decisions.computeIfAbsent(state, check::test);
+    }
+
+    public float getHardness(IBlockState state, World world, BlockPos pos) {
+        if (state.getBlock().hasTileEntity(state))
+            return state.getBlockHardness(world, pos);
+        return hardness.computeIfAbsent(state, s -> s.getBlockHardness(world, pos));
+    }
+
+    public void invalidate() {
+        mineable.clear();
+        hardness.clear();
+        harvestable.clear();
+    }
+
+    private static final class HeadKey {
+        private final Item item;
+        private final NBTTagList enchantments;
+
+        private HeadKey(Item item, NBTTagList enchantments) {
+            this.item = item;
+            this.enchantments = enchantments;
+        }
+
+        private HeadKey copy() {
+            return new HeadKey(item, enchantments.copy());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof HeadKey))
+                return false;
+            HeadKey other = (HeadKey) obj;
+            return item == other.item && enchantments.equals(other.enchantments);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * item.hashCode() + enchantments.hashCode();
+        }
+    }
+}
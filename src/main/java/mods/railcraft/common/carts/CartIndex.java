@@ -0,0 +1,80 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.carts;
+
+import com.google.common.collect.MapMaker;
+import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maps cart UUIDs to the loaded carts of client worlds.
+ *
+ * Server worlds already keep such a map, client worlds don't, so without this every lookup
+ * from the renderers would have to walk the loaded entity list. The index is fed by the
+ * {@link MinecartHooks} world listener as carts enter and leave the world.
+ */
+public enum CartIndex {
+    INSTANCE;
+    private final Map<World, Map<UUID, EntityMinecart>> worlds = new MapMaker().weakKeys().makeMap();
+    private int lookups;
+    private int lookupsLastFrame;
+
+    void onWorldLoad(World world) {
+        worlds.computeIfAbsent(world, w -> new HashMap<>());
+    }
+
+    void onCartAdded(EntityMinecart cart) {
+        Map<UUID, EntityMinecart> carts = worlds.get(cart.world);
+        if (carts != null)
+            carts.put(cart.getPersistentID(), cart);
+    }
+
+    void onCartRemoved(EntityMinecart cart) {
+        Map<UUID, EntityMinecart> carts = worlds.get(cart.world);
+        if (carts != null)
+            carts.remove(cart.getPersistentID(), cart);
+    }
+
+    /**
+     * Returns true if the world is indexed, a world loaded before the listener was added won't be.
+     */
+    boolean isIndexed(World world) {
+        return worlds.containsKey(world);
+    }
+
+    @Nullable EntityMinecart getCart(World world, UUID id) {
+        lookups++;
+        Map<UUID, EntityMinecart> carts = worlds.get(world);
+        if (carts == null)
+            return null;
+        EntityMinecart cart = carts.get(id);
+        return cart != null && cart.isEntityAlive() ? cart : null;
+    }
+
+    /**
+     * Called at the start of each rendered frame.
+     */
+    public void onFrame() {
+        lookupsLastFrame = lookups;
+        lookups = 0;
+    }
+
+    /**
+     * The number of client side cart lookups by UUID done during the last frame.
+     */
+    public int getLookupsLastFrame() {
+        return lookupsLastFrame;
+    }
+}
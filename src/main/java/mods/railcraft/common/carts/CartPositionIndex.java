@@ -0,0 +1,208 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.carts;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks which blocks the carts of a server world overlap, so blocks that react to carts can
+ * find out that nothing changed around them without searching the world for entities.
+ *
+ * Carts are bucketed by every block their bounding box touches. A {@link Watch} covers a set of
+ * positions, it counts the carts touching them and is flagged whenever a cart enters or leaves one.
+ * Carts are moved between buckets from {@link MinecartHooks} once per tick, and only when the
+ * range of blocks they touch changed.
+ */
+public enum CartPositionIndex {
+    INSTANCE;
+    private final Map<World, WorldIndex> worlds = new MapMaker().weakKeys().makeMap();
+
+    private WorldIndex index(World world) {
+        return worlds.computeIfAbsent(world, w -> new WorldIndex());
+    }
+
+    void onCartMoved(EntityMinecart cart) {
+        index(cart.world).update(cart);
+    }
+
+    void onCartRemoved(EntityMinecart cart) {
+        WorldIndex index = worlds.get(cart.world);
+        if (index != null)
+            index.remove(cart);
+    }
+
+    /**
+     * Starts watching the given positions, the watch must be released when no longer needed.
+     */
+    public Watch watch(World world, Collection<BlockPos> positions) {
+        Watch watch = new Watch(world, positions.stream().mapToLong(BlockPos::toLong).distinct().toArray());
+        index(world).add(watch);
+        return watch;
+    }
+
+    public static final class Watch {
+        private final World world;
+        private final long[] positions;
+        private int carts;
+        private boolean changed = true;
+        private boolean released;
+        private @Nullable Runnable listener;
+
+        private Watch(World world, long[] positions) {
+            this.world = world;
+            this.positions = positions;
+        }
+
+        /**
+         * Returns true if any cart is touching the watched positions.
+         */
+        public boolean isOccupied() {
+            return carts > 0;
+        }
+
+        /**
+         * Returns true if a cart entered or left the watched positions since the last call.
+         */
+        public boolean pollChanged() {
+            boolean result = changed;
+            changed = false;
+            return result;
+        }
+
+        /**
+         * Sets a callback to run whenever a cart enters or leaves the watched positions.
+         */
+        public void setListener(@Nullable Runnable listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Forces the next {@link #pollChanged()} to return true.
+         */
+        public void markChanged() {
+            changed = true;
+        }
+
+        public boolean isReleased() {
+            return released;
+        }
+
+        public void release() {
+            if (released)
+                return;
+            released = true;
+            WorldIndex index = INSTANCE.worlds.get(world);
+            if (index != null)
+                index.remove(this);
+        }
+    }
+
+    private static final class Bucket {
+        private int carts;
+        private final List<Watch> watches = new ArrayList<>(1);
+
+        private boolean isEmpty() {
+            return carts == 0 && watches.isEmpty();
+        }
+    }
+
+    private static final class WorldIndex {
+        private final Long2ObjectOpenHashMap<Bucket> buckets = new Long2ObjectOpenHashMap<>();
+        private final Int2ObjectOpenHashMap<int[]> ranges = new Int2ObjectOpenHashMap<>();
+        private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        void update(EntityMinecart cart) {
+            int[] range = getRange(cart.getEntityBoundingBox());
+            int[] old = ranges.get(cart.getEntityId());
+            if (Arrays.equals(range, old))
+                return;
+            if (old != null)
+                move(old, -1);
+            move(range, 1);
+            ranges.put(cart.getEntityId(), range);
+        }
+
+        void remove(EntityMinecart cart) {
+            int[] old = ranges.remove(cart.getEntityId());
+            if (old != null)
+                move(old, -1);
+        }
+
+        private void move(int[] range, int delta) {
+            for (int x = range[0]; x <= range[3]; x++) {
+                for (int y = range[1]; y <= range[4]; y++) {
+                    for (int z = range[2]; z <= range[5]; z++) {
+                        long key = cursor.setPos(x, y, z).toLong();
+                        Bucket bucket = buckets.get(key);
+                        if (bucket == null) {
+                            if (delta < 0)
+                                continue;
+                            bucket = new Bucket();
+                            buckets.put(key, bucket);
+                        }
+                        bucket.carts += delta;
+                        for (Watch watch : bucket.watches) {
+                            watch.carts += delta;
+                            watch.changed = true;
+                            if (watch.listener != null)
+                                watch.listener.run();
+                        }
+                        if (bucket.isEmpty())
+                            buckets.remove(key);
+                    }
+                }
+            }
+        }
+
+        void add(Watch watch) {
+            for (long key : watch.positions) {
+                Bucket bucket = buckets.get(key);
+                if (bucket == null) {
+                    bucket = new Bucket();
+                    buckets.put(key, bucket);
+                }
+                bucket.watches.add(watch);
+                watch.carts += bucket.carts;
+            }
+        }
+
+        void remove(Watch watch) {
+            for (long key : watch.positions) {
+                Bucket bucket = buckets.get(key);
+                if (bucket != null) {
+                    bucket.watches.remove(watch);
+                    if (bucket.isEmpty())
+                        buckets.remove(key);
+                }
+            }
+        }
+
+        private static int[] getRange(AxisAlignedBB box) {
+            return new int[]{
+                    MathHelper.floor(box.minX), MathHelper.floor(box.minY), MathHelper.floor(box.minZ),
+                    MathHelper.floor(box.maxX), MathHelper.floor(box.maxY), MathHelper.floor(box.maxZ)
+            };
+        }
+    }
+}
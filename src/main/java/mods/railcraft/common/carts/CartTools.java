@@ -239,6 +239,8 @@ public final class CartTools {
             if (entity instanceof EntityMinecart && entity.isEntityAlive()) {
                 return (EntityMinecart) entity;
             }
+        } else if (CartIndex.INSTANCE.isIndexed(world)) {
+            return CartIndex.INSTANCE.getCart(world, id);
         } else {
             // for performance reasons
             //noinspection Convert2streamapi
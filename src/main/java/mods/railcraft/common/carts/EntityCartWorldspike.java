@@ -11,6 +11,7 @@ package mods.railcraft.common.carts;
 
 import mods.railcraft.api.carts.CartToolsAPI;
 import mods.railcraft.api.carts.IMinecart;
+import mods.railcraft.common.blocks.tracks.TrackTools;
 import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.core.RailcraftConstants;
 import mods.railcraft.common.gui.EnumGui;
@@ -34,7 +35,9 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.datasync.DataParameter;
 import net.minecraft.network.datasync.DataSerializers;
+import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.ForgeChunkManager;
@@ -43,15 +46,27 @@ import org.apache.logging.log4j.Level;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public abstract class EntityCartWorldspike extends CartBaseContainer implements IWorldspike, IMinecart, INeedsFuel {
     private static final DataParameter<Boolean> TICKET = DataManagerPlugin.create(DataSerializers.BOOLEAN);
     private static final byte CHUNK_RADIUS = 2;
     private static final byte MAX_CHUNKS = 25;
+    private static final byte RELEASE_HYSTERESIS = 1;
+    private static final int LOOKAHEAD_INTERVAL = 20;
+    private static final double LOOKAHEAD_MIN_SPEED_SQ = 0.01 * 0.01;
     private final InventoryMapper invWrapper = new InventoryMapper(this);
     protected @Nullable Ticket ticket;
     private Set<ChunkPos> chunks = Collections.emptySet();
+    private Set<ChunkPos> forcedChunks = new HashSet<>();
+    private int chunksForced;
+    private int chunksReleased;
     private long fuel;
     private boolean teleported;
     private int disabled;
@@ -133,12 +148,14 @@ public abstract class EntityCartWorldspike extends CartBaseContainer implements
 
         if (ticket == null)
             requestTicket();
+        else if (RailcraftConfig.worldspikeCartLookahead() > 0 && ticksExisted % LOOKAHEAD_INTERVAL == 0)
+            forceChunkLoading(chunkCoordX, chunkCoordZ);
 
         if (RailcraftConfig.printWorldspikeDebug() && ticket != null) {
             clock++;
             if (clock % 64 == 0) {
-                ChatPlugin.sendLocalizedChatToAllFromServer(world, "%s has a ticket and is ticking at <%.0f,%.0f,%.0f> in dim:%d - logged on tick %d", getName(), posX, posY, posZ, world.provider.getDimension(), world.getWorldTime());
-                Game.log(Level.DEBUG, "{0} has a ticket and is ticking at <{1},{2},{3}> in dim:{4} - logged on tick {5}", getName(), posX, posY, posZ, world.provider.getDimension(), world.getWorldTime());
+                ChatPlugin.sendLocalizedChatToAllFromServer(world, "%s has a ticket and is ticking at <%.0f,%.0f,%.0f> in dim:%d, %d chunks forced and %d released - logged on tick %d", getName(), posX, posY, posZ, world.provider.getDimension(), chunksForced, chunksReleased, world.getWorldTime());
+                Game.log(Level.DEBUG, "{0} has a ticket and is ticking at <{1},{2},{3}> in dim:{4}, {5} chunks forced and {6} released - logged on tick {7}", getName(), posX, posY, posZ, world.provider.getDimension(), chunksForced, chunksReleased, world.getWorldTime());
             }
         }
     }
@@ -182,6 +199,7 @@ public abstract class EntityCartWorldspike extends CartBaseContainer implements
     protected void releaseTicket() {
         ForgeChunkManager.releaseTicket(ticket);
         ticket = null;
+        forcedChunks.clear();
         setTicketFlag(false);
     }
 
@@ -193,7 +211,7 @@ public abstract class EntityCartWorldspike extends CartBaseContainer implements
             if (chunkTicket != null) {
 //                System.out.println("Request Ticket: " + world.getClass().getSimpleName());
                 chunkTicket.getModData();
-                chunkTicket.setChunkListDepth(MAX_CHUNKS);
+                chunkTicket.setChunkListDepth(Math.min(MAX_CHUNKS + RailcraftConfig.worldspikeCartLookahead(), chunkTicket.getMaxChunkListDepth()));
                 chunkTicket.bindEntity(this);
                 setChunkTicket(chunkTicket);
                 forceChunkLoading(chunkCoordX, chunkCoordZ);
@@ -204,34 +222,135 @@ public abstract class EntityCartWorldspike extends CartBaseContainer implements
     }
 
     public void setChunkTicket(@Nullable Ticket ticket) {
-        if (this.ticket != ticket)
+        if (this.ticket != ticket) {
             ForgeChunkManager.releaseTicket(this.ticket);
+            forcedChunks = ticket == null ? new HashSet<>() : new HashSet<>(ticket.getChunkList());
+            chunksForced = 0;
+            chunksReleased = 0;
+        }
         this.ticket = ticket;
         setTicketFlag(this.ticket != null);
     }
 
+    /**
+     * Forces the chunks around the cart and, while the train is moving, the chunks along the track
+     * ahead of it, so they are loaded before the train gets there.
+     *
+     * Chunks that are no longer wanted stay forced until they fall further behind than the
+     * hysteresis allows or their slot on the ticket is needed, so trains going back and forth over
+     * a chunk border don't keep unloading and reloading the same chunks.
+     */
     public void forceChunkLoading(int xChunk, int zChunk) {
         if (ticket == null)
             return;
 
         setupChunks(xChunk, zChunk);
 
-        Set<ChunkPos> innerChunks = ChunkManager.getInstance().getChunksAround(xChunk, zChunk, 1);
+        Set<ChunkPos> wanted = getWantedChunks(xChunk, zChunk);
+
+        int releaseDistance = CHUNK_RADIUS + RELEASE_HYSTERESIS;
+        int stale = 0;
+        for (Iterator<ChunkPos> it = forcedChunks.iterator(); it.hasNext(); ) {
+            ChunkPos chunk = it.next();
+            if (wanted.contains(chunk))
+                continue;
+            if (Math.max(Math.abs(chunk.x - xChunk), Math.abs(chunk.z - zChunk)) > releaseDistance) {
+                ForgeChunkManager.unforceChunk(ticket, chunk);
+                it.remove();
+                chunksReleased++;
+            } else {
+                stale++;
+            }
+        }
+
+        int overflow = stale + wanted.size() - ticket.getChunkListDepth();
+        if (overflow > 0) {
+            List<ChunkPos> trailing = forcedChunks.stream()
+                    .filter(chunk -> !wanted.contains(chunk))
+                    .sorted(Comparator.comparingInt((ChunkPos chunk) -> Math.max(Math.abs(chunk.x - xChunk), Math.abs(chunk.z - zChunk))).reversed())
+                    .limit(overflow)
+                    .collect(Collectors.toList());
+            for (ChunkPos chunk : trailing) {
+                ForgeChunkManager.unforceChunk(ticket, chunk);
+                forcedChunks.remove(chunk);
+                chunksReleased++;
+            }
+        }
 
 //        System.out.println("Chunks Loaded = " + Arrays.toString(chunks.toArray()));
-        for (ChunkPos chunk : chunks) {
-            ForgeChunkManager.forceChunk(ticket, chunk);
-            ForgeChunkManager.reorderChunk(ticket, chunk);
+        for (ChunkPos chunk : wanted) {
+            if (forcedChunks.add(chunk)) {
+                ForgeChunkManager.forceChunk(ticket, chunk);
+                chunksForced++;
+            }
         }
-        for (ChunkPos chunk : innerChunks) {
-            ForgeChunkManager.forceChunk(ticket, chunk);
-            ForgeChunkManager.reorderChunk(ticket, chunk);
+    }
+
+    /**
+     * Returns the chunks the cart should keep loaded, the most important first and no more than
+     * fit on the ticket: the cart's own chunk, the chunks next to it, the chunks ahead of the train
+     * and then the rest of the chunks around the cart, those ahead before those behind.
+     */
+    private Set<ChunkPos> getWantedChunks(int xChunk, int zChunk) {
+        Set<ChunkPos> wanted = new LinkedHashSet<>();
+        wanted.add(new ChunkPos(xChunk, zChunk));
+        wanted.addAll(ChunkManager.getInstance().getChunksAround(xChunk, zChunk, 1));
+
+        EnumFacing heading = getHeading();
+        if (heading != null) {
+            EntityMinecart head = getHeadCart(heading);
+            int xHead = head.chunkCoordX;
+            int zHead = head.chunkCoordZ;
+            for (int i = 1; i <= CHUNK_RADIUS + RailcraftConfig.worldspikeCartLookahead(); i++) {
+                wanted.add(new ChunkPos(xHead + heading.getXOffset() * i, zHead + heading.getZOffset() * i));
+            }
+            chunks.stream()
+                    .sorted(Comparator.comparingInt(chunk -> -((chunk.x - xChunk) * heading.getXOffset() + (chunk.z - zChunk) * heading.getZOffset())))
+                    .forEach(wanted::add);
+        } else {
+            wanted.addAll(chunks);
         }
 
+        return wanted.stream()
+                .limit(ticket == null ? MAX_CHUNKS : ticket.getChunkListDepth())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Returns the direction the train is heading in, following the rail under the head cart where
+     * it runs straight, or null if the look ahead is off or the train is not moving.
+     */
+    private @Nullable EnumFacing getHeading() {
+        if (RailcraftConfig.worldspikeCartLookahead() <= 0 || motionX * motionX + motionZ * motionZ < LOOKAHEAD_MIN_SPEED_SQ)
+            return null;
+        EnumFacing heading = EnumFacing.getFacingFromVector((float) motionX, 0F, (float) motionZ);
+        EntityMinecart head = getHeadCart(heading);
+        BlockPos pos = head.getPosition();
+        if (!TrackTools.isRailBlockAt(world, pos))
+            pos = pos.down();
+        if (!world.isBlockLoaded(pos) || !TrackTools.isRailBlockAt(world, pos))
+            return heading;
+        switch (TrackTools.getTrackDirection(world, pos, head)) {
+            case NORTH_SOUTH:
+            case ASCENDING_NORTH:
+            case ASCENDING_SOUTH:
+                return motionZ < 0 ? EnumFacing.NORTH : EnumFacing.SOUTH;
+            case EAST_WEST:
+            case ASCENDING_EAST:
+            case ASCENDING_WEST:
+                return motionX < 0 ? EnumFacing.WEST : EnumFacing.EAST;
+            default:
+                return heading;
+        }
+    }
 
-        ChunkPos myChunk = new ChunkPos(xChunk, zChunk);
-        ForgeChunkManager.forceChunk(ticket, myChunk);
-        ForgeChunkManager.reorderChunk(ticket, myChunk);
+    /**
+     * Returns the cart of the train furthest along the heading.
+     */
+    private EntityMinecart getHeadCart(EnumFacing heading) {
+        return Train.getTrain(this).stream()
+                .max(Comparator.comparingDouble(cart -> cart.posX * heading.getXOffset() + cart.posZ * heading.getZOffset()))
+                .orElse(this);
     }
 
     public void setupChunks(int xChunk, int zChunk) {
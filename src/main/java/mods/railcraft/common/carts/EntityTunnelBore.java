@@ -60,6 +60,7 @@ import net.minecraftforge.event.world.BlockEvent.BreakEvent;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -181,6 +182,7 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
     private int fuel;
     private final boolean hasInit;
     private final EntityTunnelBorePart[] partArray;
+    private final List<ItemStack> drops = new ArrayList<>();
 
     public EntityTunnelBore(World world) {
         this(world, 0, 0, 0, EnumFacing.SOUTH);
@@ -219,6 +221,7 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
 
     public static void addMineableBlock(IBlockState blockState) {
         mineableStates.add(blockState);
+        BoreMiningCache.INSTANCE.invalidate();
     }
 
     @Contract("null, _ -> false")
@@ -255,12 +258,14 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
             if (mappingExists)
                 return false;
             */
-            Item item = head.getItem();
-            Set<String> toolClasses = item.getToolClasses(head);
-            EntityPlayer fakePlayer = RailcraftFakePlayer.get((WorldServer) world, posX, posY, posZ);
-
-            return toolClasses.stream()
-                    .anyMatch(tool -> item.getHarvestLevel(head, tool, fakePlayer, targetState) >= HarvestPlugin.getHarvestLevel(targetState, tool));
+            return BoreMiningCache.INSTANCE.canHarvest(head, targetState, state -> {
+                Item item = head.getItem();
+                Set<String> toolClasses = item.getToolClasses(head);
+                EntityPlayer fakePlayer = RailcraftFakePlayer.get((WorldServer) world, posX, posY, posZ);
+
+                return toolClasses.stream()
+                        .anyMatch(tool -> item.getHarvestLevel(head, tool, fakePlayer, state) >= HarvestPlugin.getHarvestLevel(state, tool));
+            });
         }
 
         return false;
@@ -274,6 +279,10 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
     private boolean isMineableBlock(IBlockState blockState) {
         if (RailcraftConfig.boreMinesAllBlocks())
             return true;
+        return BoreMiningCache.INSTANCE.isMineable(blockState, EntityTunnelBore::isListedMineable);
+    }
+
+    private static boolean isListedMineable(IBlockState blockState) {
         if (mineableBlocks.contains(blockState.getBlock()) || mineableStates.contains(blockState))
             return true;
         Block block = blockState.getBlock();
@@ -796,7 +805,59 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
     }
 
     protected boolean boreLayer(BlockPos targetPos, BlockRailBase.EnumRailDirection dir) {
-        return layerAction(targetPos, dir, true, this::mineBlock, (s, r) -> s && r);
+        boolean cleared = layerAction(targetPos, dir, true, this::mineBlock, (s, r) -> s && r);
+        flushDrops();
+        return cleared;
+    }
+
+    /**
+     * Holds on to a drop until the layer is done, merged with the same items already held.
+     */
+    private void bufferDrop(ItemStack stack) {
+        for (ItemStack held : drops) {
+            if (InvTools.isItemEqual(held, stack)) {
+                int moved = Math.min(stack.getCount(), held.getMaxStackSize() - held.getCount());
+                held.grow(moved);
+                stack.shrink(moved);
+                if (stack.isEmpty())
+                    return;
+            }
+        }
+        drops.add(stack);
+    }
+
+    /**
+     * Stores the drops of the layer: fuel and ballast in the bore, the rest in the train in one
+     * pass, and spills what is left behind the bore.
+     */
+    private void flushDrops() {
+        if (drops.isEmpty())
+            return;
+        List<ItemStack> toTrain = new ArrayList<>(drops.size());
+        for (ItemStack stack : drops) {
+            if (StandardStackFilters.FUEL.test(stack))
+                stack = InvTools.moveItemStack(stack, invFuel);
+
+            if (!InvTools.isEmpty(stack) && InvTools.isStackEqualToBlock(stack, Blocks.GRAVEL))
+                stack = InvTools.moveItemStack(stack, invBallast);
+
+            if (!InvTools.isEmpty(stack))
+                toTrain.add(stack);
+        }
+        drops.clear();
+
+        if (toTrain.isEmpty())
+            return;
+        for (ItemStack stack : TrainTransferHelper.INSTANCE.pushStacks(this, toTrain)) {
+            float f = 0.7F;
+            double xr = (world.rand.nextFloat() - 0.5D) * f;
+            double yr = (world.rand.nextFloat() - 0.5D) * f;
+            double zr = (world.rand.nextFloat() - 0.5D) * f;
+            Vec3d spewPos = getPositionAhead(-3.2);
+            spewPos.add(xr, 0.3 + yr, zr);
+            EntityItem entityitem = new EntityItem(world, spewPos.x, spewPos.y, spewPos.z, stack);
+            world.spawnEntity(entityitem);
+        }
     }
 
     /**
@@ -853,25 +914,8 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
 
         if (!RailcraftConfig.boreDestroysBlocks() && world.getGameRules().getBoolean("doTileDrops")) {
             for (ItemStack stack : items) {
-                if (StandardStackFilters.FUEL.test(stack))
-                    stack = InvTools.moveItemStack(stack, invFuel);
-
-                if (!InvTools.isEmpty(stack) && InvTools.isStackEqualToBlock(stack, Blocks.GRAVEL))
-                    stack = InvTools.moveItemStack(stack, invBallast);
-
                 if (!InvTools.isEmpty(stack))
-                    stack = CartToolsAPI.transferHelper().pushStack(this, stack);
-
-                if (!InvTools.isEmpty(stack)) {
-                    float f = 0.7F;
-                    double xr = (world.rand.nextFloat() - 0.5D) * f;
-                    double yr = (world.rand.nextFloat() - 0.5D) * f;
-                    double zr = (world.rand.nextFloat() - 0.5D) * f;
-                    Vec3d spewPos = getPositionAhead(-3.2);
-                    spewPos.add(xr, 0.3 + yr, zr);
-                    EntityItem entityitem = new EntityItem(world, spewPos.x, spewPos.y, spewPos.z, stack);
-                    world.spawnEntity(entityitem);
-                }
+                    bufferDrop(stack.copy());
             }
         }
         WorldPlugin.setBlockToAir(world, targetPos);
@@ -885,7 +929,7 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
     @SuppressWarnings({"SimplifiableIfStatement", "BooleanMethodIsAlwaysInverted"})
     private boolean canMineBlock(BlockPos targetPos, IBlockState existingState) {
         ItemStack head = getStackInSlot(0);
-        if (existingState.getBlockHardness(world, targetPos) < 0)
+        if (BoreMiningCache.INSTANCE.getHardness(existingState, world, targetPos) < 0)
             return false;
         return isMineableBlock(existingState) && canHeadHarvestBlock(head, existingState);
     }
@@ -928,7 +972,7 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
         if (!canMineBlock(pos, blockState))
             return 0.1f;
 
-        float hardness = blockState.getBlockHardness(world, pos);
+        float hardness = BoreMiningCache.INSTANCE.getHardness(blockState, world, pos);
         if (hardness <= 0)
             hardness = 0.1f;
         return hardness;
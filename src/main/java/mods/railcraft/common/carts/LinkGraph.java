@@ -0,0 +1,111 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.carts;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import mods.railcraft.common.util.misc.MathTools;
+import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The runtime view of the cart links in a server world.
+ *
+ * Every cart the {@link LinkageManager} touches gets a node keyed by its entity id. A node holds the
+ * ids of the carts it links to, read once from the cart's NBT, and a direct reference to their nodes
+ * once they have been resolved, so following a link is a field read rather than an NBT read plus a
+ * UUID lookup. Nodes are dropped when their cart leaves the world, which makes any reference to them
+ * resolve again on next use.
+ */
+final class LinkGraph {
+    private final World world;
+    private final Int2ObjectOpenHashMap<Node> nodes = new Int2ObjectOpenHashMap<>();
+    private final Map<UUID, Node> nodesByUUID = new HashMap<>();
+
+    LinkGraph(World world) {
+        this.world = world;
+    }
+
+    Node node(EntityMinecart cart) {
+        Node node = nodes.get(cart.getEntityId());
+        if (node == null || node.cart != cart) {
+            node = new Node(cart);
+            nodes.put(cart.getEntityId(), node);
+            nodesByUUID.put(node.id, node);
+        }
+        return node;
+    }
+
+    void remove(EntityMinecart cart) {
+        Node node = nodes.get(cart.getEntityId());
+        if (node != null && node.cart == cart) {
+            nodes.remove(cart.getEntityId());
+            nodesByUUID.remove(node.id, node);
+            node.removed = true;
+        }
+    }
+
+    UUID getLink(EntityMinecart cart, LinkageManager.LinkType type) {
+        return node(cart).links[type.ordinal()];
+    }
+
+    void setLink(EntityMinecart cart, LinkageManager.LinkType type, @Nullable EntityMinecart target) {
+        Node node = node(cart);
+        if (target == null) {
+            node.links[type.ordinal()] = MathTools.NIL_UUID;
+            node.resolved[type.ordinal()] = null;
+        } else {
+            Node targetNode = node(target);
+            node.links[type.ordinal()] = targetNode.id;
+            node.resolved[type.ordinal()] = targetNode;
+        }
+    }
+
+    @Nullable EntityMinecart getLinkedCart(EntityMinecart cart, LinkageManager.LinkType type) {
+        Node node = node(cart);
+        UUID link = node.links[type.ordinal()];
+        if (MathTools.isNil(link))
+            return null;
+        Node target = node.resolved[type.ordinal()];
+        if (target == null || !target.isValid()) {
+            target = nodesByUUID.get(link);
+            if (target == null || !target.isValid()) {
+                EntityMinecart linked = CartTools.getCartFromUUID(world, link);
+                target = linked == null ? null : node(linked);
+            }
+            node.resolved[type.ordinal()] = target;
+        }
+        return target == null || !target.isValid() ? null : target.cart;
+    }
+
+    static final class Node {
+        private final EntityMinecart cart;
+        private final UUID id;
+        private final UUID[] links = new UUID[LinkageManager.LinkType.VALUES.length];
+        private final Node[] resolved = new Node[LinkageManager.LinkType.VALUES.length];
+        private boolean removed;
+
+        private Node(EntityMinecart cart) {
+            this.cart = cart;
+            this.id = cart.getPersistentID();
+            for (LinkageManager.LinkType type : LinkageManager.LinkType.VALUES) {
+                links[type.ordinal()] = LinkageManager.readLinkTags(cart, type);
+            }
+        }
+
+        private boolean isValid() {
+            return !removed && cart.isEntityAlive();
+        }
+    }
+}
@@ -9,6 +9,7 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.carts;
 
+import com.google.common.collect.MapMaker;
 import mods.railcraft.api.carts.ILinkableCart;
 import mods.railcraft.api.carts.ILinkageManager;
 import mods.railcraft.api.events.CartLinkEvent;
@@ -16,6 +17,7 @@ import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.MathTools;
 import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import org.apache.logging.log4j.Level;
 import org.jetbrains.annotations.Nullable;
@@ -37,6 +39,9 @@ import java.util.*;
  * <p/>
  * Generally you can ignore most of this and use the functions that don't
  * require or return Linkage Ids.
+ * <p/>
+ * On the server the links are read from a {@link LinkGraph} held per world,
+ * the NBT data is only read when a cart is first seen and written when a link changes.
  *
  * @author CovertJaguar <http://www.railcraft.info>
  */
@@ -48,12 +53,28 @@ public enum LinkageManager implements ILinkageManager {
     public static final String LINK_A_LOW = "rcLinkALow";
     public static final String LINK_B_HIGH = "rcLinkBHigh";
     public static final String LINK_B_LOW = "rcLinkBLow";
+    private final Map<World, LinkGraph> graphs = new MapMaker().weakKeys().makeMap();
 
     public static void printDebug(String msg, Object... args) {
         if (RailcraftConfig.printLinkingDebug())
             Game.log(Level.DEBUG, msg, args);
     }
 
+    private @Nullable LinkGraph graph(World world) {
+        if (Game.isClient(world))
+            return null;
+        return graphs.computeIfAbsent(world, LinkGraph::new);
+    }
+
+    /**
+     * Called when a cart leaves the world, dead or unloaded, so the link graph stops referencing it.
+     */
+    public void onCartRemoved(EntityMinecart cart) {
+        LinkGraph graph = graphs.get(cart.world);
+        if (graph != null)
+            graph.remove(cart);
+    }
+
     /**
      * Returns the linkage id of the cart and adds the cart the linkage cache.
      *
@@ -217,6 +238,13 @@ public enum LinkageManager implements ILinkageManager {
 
     // Note: returns a nil uuid (0) if the link does not exist
     public UUID getLink(EntityMinecart cart, LinkType linkType) {
+        LinkGraph graph = graph(cart.world);
+        if (graph != null)
+            return graph.getLink(cart, linkType);
+        return readLinkTags(cart, linkType);
+    }
+
+    static UUID readLinkTags(EntityMinecart cart, LinkType linkType) {
         long high = cart.getEntityData().getLong(linkType.tagHigh);
         long low = cart.getEntityData().getLong(linkType.tagLow);
         return new UUID(high, low);
@@ -236,6 +264,9 @@ public enum LinkageManager implements ILinkageManager {
         source.getEntityData().setLong(linkType.tagHigh, id.getMostSignificantBits());
         source.getEntityData().setLong(linkType.tagLow, id.getLeastSignificantBits());
         source.getEntityData().removeTag(linkType.autoLink); // So we don't need to worry outside
+        LinkGraph graph = graph(source.world);
+        if (graph != null)
+            graph.setLink(source, linkType, target);
     }
 
     /**
@@ -263,6 +294,9 @@ public enum LinkageManager implements ILinkageManager {
     }
 
     public @Nullable EntityMinecart getLinkedCart(EntityMinecart cart, LinkType type) {
+        LinkGraph graph = graph(cart.world);
+        if (graph != null)
+            return graph.getLinkedCart(cart, type);
         return CartTools.getCartFromUUID(cart.world, getLink(cart, type));
     }
 
@@ -419,6 +453,9 @@ public enum LinkageManager implements ILinkageManager {
     private void removeLinkTags(EntityMinecart cart, LinkType linkType) {
         cart.getEntityData().removeTag(linkType.tagHigh);
         cart.getEntityData().removeTag(linkType.tagLow);
+        LinkGraph graph = graph(cart.world);
+        if (graph != null)
+            graph.setLink(cart, linkType, null);
     }
 
     /**
@@ -251,6 +251,9 @@ public enum MinecartHooks implements IMinecartCollisionHandler, IWorldEventListe
         EntityMinecart cart = event.getMinecart();
         NBTTagCompound data = cart.getEntityData();
 
+        if (Game.isHost(cart.world))
+            CartPositionIndex.INSTANCE.onCartMoved(cart);
+
         // Fix flip
         float distance = MathTools.getDistanceBetweenAngles(cart.rotationYaw, cart.prevRotationYaw);
         float cutoff = 120F;
@@ -434,9 +437,9 @@ public enum MinecartHooks implements IMinecartCollisionHandler, IWorldEventListe
 
     @SubscribeEvent
     public void onWorldCreate(WorldEvent.Load event) {
-        if (Game.isHost(event.getWorld())) {
-            event.getWorld().addEventListener(this);
-        }
+        if (Game.isClient(event.getWorld()))
+            CartIndex.INSTANCE.onWorldLoad(event.getWorld());
+        event.getWorld().addEventListener(this);
     }
 
     @Override
@@ -447,6 +450,14 @@ public enum MinecartHooks implements IMinecartCollisionHandler, IWorldEventListe
             LinkageManager.INSTANCE.breakLinks((EntityMinecart) entityIn);
             Train.deleteTrain((EntityMinecart) entityIn);
         }
+        if (entityIn instanceof EntityMinecart) {
+            LinkageManager.INSTANCE.onCartRemoved((EntityMinecart) entityIn);
+            if (Game.isHost(entityIn.world)) {
+                Train.onCartRemoved((EntityMinecart) entityIn);
+                CartPositionIndex.INSTANCE.onCartRemoved((EntityMinecart) entityIn);
+            } else
+                CartIndex.INSTANCE.onCartRemoved((EntityMinecart) entityIn);
+        }
     }
 
     @Override
@@ -479,6 +490,13 @@ public enum MinecartHooks implements IMinecartCollisionHandler, IWorldEventListe
 
     @Override
     public void onEntityAdded(Entity entityIn) {
+        if (entityIn instanceof EntityMinecart) {
+            if (Game.isHost(entityIn.world)) {
+                Train.onCartAdded((EntityMinecart) entityIn);
+                CartPositionIndex.INSTANCE.onCartMoved((EntityMinecart) entityIn);
+            } else
+                CartIndex.INSTANCE.onCartAdded((EntityMinecart) entityIn);
+        }
     }
 
     @Override
@@ -10,6 +10,11 @@
 
 package mods.railcraft.common.carts;
 
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import mods.railcraft.common.items.ItemGoggles;
 import mods.railcraft.common.util.entity.EntitySearcher;
 import mods.railcraft.common.util.misc.Game;
@@ -17,17 +22,31 @@ import mods.railcraft.common.util.network.PacketDispatcher;
 import mods.railcraft.common.util.network.PacketShuntingAura;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
+import net.minecraft.world.World;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
+ * Feeds the shunting aura of players wearing goggles.
+ *
+ * Each player gets a session remembering what it was last sent, so updates only carry the carts
+ * that came into range, left it, or changed train or links. Carts are identified by entity id.
+ * A session starts over with a full update when the aura is put on again or the player changes
+ * world.
+ *
  * @author CovertJaguar <http://www.railcraft.info>
  */
 public class ShuntingAuraTickHandler {
+    private final Map<EntityPlayer, Session> sessions = new MapMaker().weakKeys().makeMap();
 
     @SubscribeEvent
     public void tick(PlayerEvent.LivingUpdateEvent event) {
@@ -40,12 +59,87 @@ public class ShuntingAuraTickHandler {
                 ItemStack goggles = ItemGoggles.getGoggles(player);
                 ItemGoggles.GoggleAura aura = ItemGoggles.getCurrentAura(goggles);
                 if (aura == ItemGoggles.GoggleAura.SHUNTING) {
-                    List<EntityMinecart> carts = EntitySearcher.findMinecarts().around(player).outTo(32F).in(player.world);
-                    PacketShuntingAura pkt = new PacketShuntingAura(carts);
-                    PacketDispatcher.sendToPlayer(pkt.getPacket(), player);
+                    update(player);
+                    return;
                 }
             }
+            sessions.remove(player);
         }
     }
 
+    private void update(EntityPlayerMP player) {
+        Session session = sessions.get(player);
+        boolean reset = session == null || session.world != player.world;
+        if (reset) {
+            session = new Session(player.world);
+            sessions.put(player, session);
+        }
+
+        LinkageManager lm = LinkageManager.INSTANCE;
+        Int2ObjectMap<CartInfo> current = new Int2ObjectOpenHashMap<>();
+        for (EntityMinecart cart : EntitySearcher.findMinecarts().around(player).outTo(32F).in(player.world)) {
+            current.put(cart.getEntityId(), new CartInfo(cart.getEntityId(), Objects.hashCode(Train.getTrainUUID(cart)),
+                    getId(lm.getLinkedCartA(cart)), getId(lm.getLinkedCartB(cart))));
+        }
+
+        IntList removed = new IntArrayList();
+        for (int id : session.sent.keySet()) {
+            if (!current.containsKey(id))
+                removed.add(id);
+        }
+        List<CartInfo> changed = new ArrayList<>();
+        for (CartInfo info : current.values()) {
+            if (!info.equals(session.sent.get(info.id)))
+                changed.add(info);
+        }
+        session.sent = current;
+
+        if (reset || !removed.isEmpty() || !changed.isEmpty())
+            PacketDispatcher.sendToPlayer(new PacketShuntingAura(reset, removed, changed), player);
+    }
+
+    private static int getId(@Nullable EntityMinecart cart) {
+        return cart == null ? -1 : cart.getEntityId();
+    }
+
+    private static final class Session {
+        private final World world;
+        private Int2ObjectMap<CartInfo> sent = new Int2ObjectOpenHashMap<>();
+
+        private Session(World world) {
+            this.world = world;
+        }
+    }
+
+    /**
+     * A cart shown by the aura, its train and links, links are -1 when missing.
+     */
+    public static final class CartInfo {
+        public final int id;
+        public final int train;
+        public final int linkA;
+        public final int linkB;
+
+        public CartInfo(int id, int train, int linkA, int linkB) {
+            this.id = id;
+            this.train = train;
+            this.linkA = linkA;
+            this.linkB = linkB;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof CartInfo))
+                return false;
+            CartInfo other = (CartInfo) obj;
+            return id == other.id && train == other.train && linkA == other.linkA && linkB == other.linkB;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, train, linkA, linkB);
+        }
+    }
 }
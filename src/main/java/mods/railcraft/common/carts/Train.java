@@ -28,24 +28,43 @@ import net.minecraftforge.items.IItemHandlerModifiable;
 import net.minecraftforge.items.wrapper.CombinedInvWrapper;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
+ * The carts are kept in an array in train order, along with weak references to the resolved carts and
+ * an index from cart id to position. Values derived from the carts are cached against {@link #version},
+ * which changes whenever the members change or a member cart enters or leaves the world.
+ *
  * @author CovertJaguar <http://www.railcraft.info>
  */
 @SuppressWarnings("unused")
 public final class Train implements Iterable<EntityMinecart> {
     public static final String TRAIN_NBT = "rcTrain";
 
+    private static final UUID[] NO_CARTS = new UUID[0];
     private final UUID uuid;
-    private final LinkedList<UUID> carts = new LinkedList<>();
-    private final List<UUID> safeCarts = Collections.unmodifiableList(carts);
+    private UUID[] carts = NO_CARTS;
+    private WeakReference<EntityMinecart>[] resolvedCarts = newReferenceArray(0);
+    private final Map<UUID, Integer> positions = new HashMap<>();
+    private List<UUID> safeCarts = Collections.emptyList();
     private final Set<UUID> locks = new HashSet<>();
     private @Nullable World world;
     private TrainState state;
     private boolean dirty = true;
+    private int version;
+    private int validatedVersion = -1;
+    private long validatedTick = -1;
+    private int aggregateVersion = -1;
+    private long aggregateTick = -1;
+    private int numRunningLocomotives;
+    private float maxSpeed;
+    private int handlerVersion = -1;
+    private @Nullable IItemHandler itemHandler;
+    private @Nullable IFluidHandler fluidHandler;
 
     Train(EntityMinecart cart) {
         this(UUID.randomUUID(),
@@ -59,10 +78,28 @@ public final class Train implements Iterable<EntityMinecart> {
     Train(UUID id, TrainState state, Collection<UUID> carts, Set<UUID> locks) {
         this.uuid = id;
         this.state = state;
-        this.carts.addAll(carts);
+        setCarts(carts.toArray(NO_CARTS), null);
         this.locks.addAll(locks);
     }
 
+    @SuppressWarnings("unchecked")
+    private static WeakReference<EntityMinecart>[] newReferenceArray(int size) {
+        return new WeakReference[size];
+    }
+
+    private void setCarts(UUID[] ids, @Nullable EntityMinecart[] resolved) {
+        carts = ids;
+        resolvedCarts = newReferenceArray(ids.length);
+        positions.clear();
+        for (int i = 0; i < ids.length; i++) {
+            positions.put(ids[i], i);
+            if (resolved != null)
+                resolvedCarts[i] = new WeakReference<>(resolved[i]);
+        }
+        safeCarts = Collections.unmodifiableList(Arrays.asList(carts));
+        version++;
+    }
+
     private static TrainManager getManager(World world) {
         return TrainManager.forWorld(world);
     }
@@ -140,18 +177,54 @@ public final class Train implements Iterable<EntityMinecart> {
         return CartTools.getCartFromUUID(world, cartID);
     }
 
+    private @Nullable EntityMinecart getCart(int index) {
+        WeakReference<EntityMinecart> ref = resolvedCarts[index];
+        EntityMinecart cart = ref == null ? null : ref.get();
+        if (cart == null || !cart.isEntityAlive()) {
+            cart = getCart(carts[index]);
+            resolvedCarts[index] = cart == null ? null : new WeakReference<>(cart);
+        }
+        return cart;
+    }
+
+    /**
+     * Called when a cart enters the world, so the train stops using values cached without it.
+     */
+    public static void onCartAdded(EntityMinecart cart) {
+        getTrainUnsafe(cart).ifPresent(train -> {
+            if (train.positions.containsKey(cart.getPersistentID()))
+                train.version++;
+        });
+    }
+
+    /**
+     * Called when a cart leaves the world, dead or unloaded, so the train drops its reference to it.
+     */
+    public static void onCartRemoved(EntityMinecart cart) {
+        getTrainUnsafe(cart).ifPresent(train -> {
+            Integer index = train.positions.get(cart.getPersistentID());
+            if (index != null) {
+                WeakReference<EntityMinecart> ref = train.resolvedCarts[index];
+                if (ref != null && ref.get() == cart)
+                    train.resolvedCarts[index] = null;
+                train.version++;
+            }
+        });
+    }
+
     public void rebuild(EntityMinecart first) {
         forEach(Train::removeTrainTag);
-        carts.clear();
-        rebuild(null, first);
+        Deque<EntityMinecart> members = new ArrayDeque<>();
+        rebuild(members, null, first);
+        setCarts(members.stream().map(Entity::getPersistentID).toArray(UUID[]::new), members.toArray(new EntityMinecart[0]));
         markDirty();
     }
 
-    private void rebuild(@Nullable EntityMinecart prev, EntityMinecart next) {
-        if (prev == null || carts.getFirst() == prev.getPersistentID())
-            carts.addFirst(next.getPersistentID());
-        else if (carts.getLast() == prev.getPersistentID())
-            carts.addLast(next.getPersistentID());
+    private void rebuild(Deque<EntityMinecart> members, @Nullable EntityMinecart prev, EntityMinecart next) {
+        if (prev == null || members.peekFirst() == prev)
+            members.addFirst(next);
+        else if (members.peekLast() == prev)
+            members.addLast(next);
         else
             throw new RuntimeException("Something went horribly wrong in the linkage code!");
 
@@ -162,20 +235,32 @@ public final class Train implements Iterable<EntityMinecart> {
         EntityMinecart linkA = lm.getLinkedCartA(next);
         EntityMinecart linkB = lm.getLinkedCartB(next);
 
-        if (linkA != null && linkA != prev && !contains(linkA))
-            rebuild(next, linkA);
+        if (linkA != null && linkA != prev && !members.contains(linkA))
+            rebuild(members, next, linkA);
 
-        if (linkB != null && linkB != prev && !contains(linkB))
-            rebuild(next, linkB);
+        if (linkB != null && linkB != prev && !members.contains(linkB))
+            rebuild(members, next, linkB);
     }
 
-    private boolean isValid() {
-        return carts.stream().allMatch(this::isCartValid);
+    private long getWorldTime() {
+        return world == null ? 0 : world.getTotalWorldTime();
     }
 
-    private boolean isCartValid(UUID cartID) {
-        EntityMinecart cart = getCart(cartID);
-        return cart != null && uuid.equals(getTrainUUID(cart));
+    /**
+     * Checks that every cart is loaded and still tagged with this train, at most once per tick.
+     */
+    private boolean isValid() {
+        long tick = getWorldTime();
+        if (validatedVersion == version && validatedTick == tick)
+            return true;
+        for (int i = 0; i < carts.length; i++) {
+            EntityMinecart cart = getCart(i);
+            if (cart == null || !uuid.equals(getTrainUUID(cart)))
+                return false;
+        }
+        validatedVersion = version;
+        validatedTick = tick;
+        return true;
     }
 
     public static void repairTrain(EntityMinecart cart1, EntityMinecart cart2) {
@@ -190,7 +275,7 @@ public final class Train implements Iterable<EntityMinecart> {
 
     private void resetTrain() {
         forEach(Train::removeTrainTag);
-        carts.clear();
+        setCarts(NO_CARTS, null);
         locks.clear();
         markDirty();
     }
@@ -205,32 +290,38 @@ public final class Train implements Iterable<EntityMinecart> {
 
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     public boolean contains(@Nullable EntityMinecart cart) {
-        return cart != null && carts.contains(cart.getPersistentID());
+        return cart != null && positions.containsKey(cart.getPersistentID());
     }
 
     public boolean isTrainEnd(@Nullable EntityMinecart cart) {
-        return cart != null && getEnds().contains(cart.getPersistentID());
+        if (cart == null || carts.length == 0)
+            return false;
+        UUID id = cart.getPersistentID();
+        return id.equals(carts[0]) || id.equals(carts[carts.length - 1]);
     }
 
     public Collection<UUID> getEnds() {
         Set<UUID> ends = new HashSet<>();
-        if (!carts.isEmpty()) {
-            ends.add(carts.getFirst());
-            ends.add(carts.getLast());
+        if (carts.length > 0) {
+            ends.add(carts[0]);
+            ends.add(carts[carts.length - 1]);
         }
         return ends;
     }
 
     public @Nullable EntityLocomotive getHeadLocomotive() {
-        return getEnds().stream()
-                .map(this::getCart)
-                .flatMap(Streams.toType(EntityLocomotive.class))
-                .findFirst().orElse(null);
+        if (carts.length == 0)
+            return null;
+        EntityMinecart first = getCart(0);
+        if (first instanceof EntityLocomotive)
+            return (EntityLocomotive) first;
+        EntityMinecart last = getCart(carts.length - 1);
+        return last instanceof EntityLocomotive ? (EntityLocomotive) last : null;
     }
 
     public Stream<EntityMinecart> stream() {
-        return safeCarts.stream()
-                .map(this::getCart)
+        return IntStream.range(0, carts.length)
+                .mapToObj(this::getCart)
                 .filter(Objects::nonNull);
     }
 
@@ -240,11 +331,57 @@ public final class Train implements Iterable<EntityMinecart> {
 
     @Override
     public Iterator<EntityMinecart> iterator() {
-        return stream().iterator();
+        return new Iterator<EntityMinecart>() {
+            private final UUID[] members = carts;
+            private int index;
+            private @Nullable EntityMinecart next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && index < members.length && members == carts) {
+                    next = getCart(index++);
+                }
+                return next != null;
+            }
+
+            @Override
+            public EntityMinecart next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                EntityMinecart cart = next;
+                next = null;
+                return cart;
+            }
+        };
+    }
+
+    /**
+     * Recomputes the values that depend on the state of the carts, at most once per tick.
+     */
+    private void refreshAggregates() {
+        long tick = getWorldTime();
+        if (aggregateVersion == version && aggregateTick == tick)
+            return;
+        numRunningLocomotives = (int) stream(EntityLocomotive.class).filter(EntityLocomotive::isRunning).count();
+        float speed = 1.2F;
+        for (EntityMinecart c : this) {
+            float baseSpeed = c.getMaxCartSpeedOnRail();
+            if (numRunningLocomotives > 0 && !(c instanceof CartBaseEnergy) && c.hasCapability(CapabilitiesCharge.CART_BATTERY, null)) {
+                IBatteryCart battery = c.getCapability(CapabilitiesCharge.CART_BATTERY, null);
+                if (battery != null && battery.getType() != IBatteryCart.Type.USER) {
+                    baseSpeed = Math.min(0.2F, 0.03F + (numRunningLocomotives - 1) * 0.075F);
+                }
+            }
+            speed = Math.min(speed, baseSpeed);
+        }
+        maxSpeed = speed;
+        aggregateVersion = version;
+        aggregateTick = tick;
     }
 
     public int getNumRunningLocomotives() {
-        return (int) stream(EntityLocomotive.class).filter(EntityLocomotive::isRunning).count();
+        refreshAggregates();
+        return numRunningLocomotives;
     }
 
     public <T extends EntityMinecart> List<T> getCarts(Class<T> cartClass) {
@@ -255,32 +392,41 @@ public final class Train implements Iterable<EntityMinecart> {
         return safeCarts;
     }
 
-    public @Nullable IItemHandler getItemHandler() {
-        List<IItemHandlerModifiable> cartHandlers = stream()
+    /**
+     * The combined handlers only depend on which carts are loaded, so they are kept until the version changes.
+     */
+    private void refreshHandlers() {
+        if (handlerVersion == version)
+            return;
+        List<IItemHandlerModifiable> itemHandlers = stream()
                 .map(InvTools::getItemHandler)
                 .flatMap(Streams.toType(IItemHandlerModifiable.class))
                 .collect(Collectors.toList());
-        if (cartHandlers.isEmpty())
-            return null;
-        return new CombinedInvWrapper(cartHandlers.toArray(new IItemHandlerModifiable[0]));
-    }
-
-    public @Nullable IFluidHandler getFluidHandler() {
-        List<IFluidHandler> cartHandlers = stream()
+        itemHandler = itemHandlers.isEmpty() ? null : new CombinedInvWrapper(itemHandlers.toArray(new IItemHandlerModifiable[0]));
+        List<IFluidHandler> fluidHandlers = stream()
                 .map(FluidTools::getFluidHandler)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
-        if (cartHandlers.isEmpty())
-            return null;
-        return new FluidHandlerConcatenate(cartHandlers);
+        fluidHandler = fluidHandlers.isEmpty() ? null : new FluidHandlerConcatenate(fluidHandlers);
+        handlerVersion = version;
+    }
+
+    public @Nullable IItemHandler getItemHandler() {
+        refreshHandlers();
+        return itemHandler;
+    }
+
+    public @Nullable IFluidHandler getFluidHandler() {
+        refreshHandlers();
+        return fluidHandler;
     }
 
     public int size() {
-        return carts.size();
+        return carts.length;
     }
 
     public boolean isEmpty() {
-        return carts.isEmpty();
+        return carts.length == 0;
     }
 
     public void refreshMaxSpeed() {
@@ -288,19 +434,8 @@ public final class Train implements Iterable<EntityMinecart> {
     }
 
     public float getMaxSpeed() {
-        float speed = 1.2F;
-        int numLocomotives = getNumRunningLocomotives();
-        for (EntityMinecart c : this) {
-            float baseSpeed = c.getMaxCartSpeedOnRail();
-            if (numLocomotives > 0 && !(c instanceof CartBaseEnergy) && c.hasCapability(CapabilitiesCharge.CART_BATTERY, null)) {
-                IBatteryCart battery = c.getCapability(CapabilitiesCharge.CART_BATTERY, null);
-                if (battery != null && battery.getType() != IBatteryCart.Type.USER) {
-                    baseSpeed = Math.min(0.2F, 0.03F + (numLocomotives - 1) * 0.075F);
-                }
-            }
-            speed = Math.min(speed, baseSpeed);
-        }
-        return speed;
+        refreshAggregates();
+        return maxSpeed;
     }
 
     public void setMaxSpeed(float trainSpeed) {
@@ -29,6 +29,9 @@ import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.items.IItemHandler;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -80,6 +83,47 @@ public enum TrainTransferHelper implements ITrainTransferHelper {
         return stack;
     }
 
+    /**
+     * Pushes several stacks through the train at once, like {@link #pushStack(EntityMinecart, ItemStack)}
+     * but walking the train and looking up the inventory of each cart only once for all of them.
+     *
+     * @return the stacks that could not be placed
+     */
+    public List<ItemStack> pushStacks(EntityMinecart requester, List<ItemStack> stacks) {
+        Iterable<EntityMinecart> carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_A);
+        List<ItemStack> remaining = _pushStacks(requester, carts, stacks);
+        if (!remaining.isEmpty() && LinkageManager.INSTANCE.hasLink(requester, LinkageManager.LinkType.LINK_B)) {
+            carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_B);
+            remaining = _pushStacks(requester, carts, remaining);
+        }
+        return remaining;
+    }
+
+    private List<ItemStack> _pushStacks(EntityMinecart requester, Iterable<EntityMinecart> carts, List<ItemStack> stacks) {
+        List<ItemStack> moving = new ArrayList<>(stacks);
+        List<ItemStack> stopped = new ArrayList<>();
+        for (EntityMinecart cart : carts) {
+            if (moving.isEmpty())
+                break;
+            InventoryComposite inv = InventoryComposite.of(cart);
+            for (ListIterator<ItemStack> it = moving.listIterator(); it.hasNext(); ) {
+                ItemStack stack = it.next();
+                if (!inv.isEmpty() && canAcceptPushedItem(requester, cart, stack))
+                    stack = InvTools.moveItemStack(stack, inv);
+                if (InvTools.isEmpty(stack)) {
+                    it.remove();
+                } else if (!canPassItemRequests(cart, stack)) {
+                    it.remove();
+                    stopped.add(stack);
+                } else {
+                    it.set(stack);
+                }
+            }
+        }
+        stopped.addAll(moving);
+        return stopped;
+    }
+
     @Override
     public ItemStack pullStack(EntityMinecart requester, Predicate<ItemStack> filter) {
         Iterable<EntityMinecart> carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_A);
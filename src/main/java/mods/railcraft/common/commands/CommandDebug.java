@@ -10,8 +10,11 @@
 package mods.railcraft.common.commands;
 
 import mods.railcraft.api.signals.*;
+import mods.railcraft.common.blocks.RailcraftTickingTileEntity;
 import mods.railcraft.common.blocks.RailcraftTileEntity;
 import mods.railcraft.common.blocks.machine.wayobjects.boxes.TileBoxBase;
+import mods.railcraft.common.blocks.machine.wayobjects.signals.TokenManager;
+import mods.railcraft.common.blocks.machine.wayobjects.signals.TokenRing;
 import mods.railcraft.common.carts.CartTools;
 import mods.railcraft.common.carts.TrainManager;
 import mods.railcraft.common.items.ItemMagnifyingGlass;
@@ -19,6 +22,8 @@ import mods.railcraft.common.plugins.forge.ChatPlugin;
 import mods.railcraft.common.plugins.forge.WorldPlugin;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.MiscTools;
+import mods.railcraft.common.util.network.TileSyncManager;
+import mods.railcraft.common.util.steam.SteamNetwork;
 import net.minecraft.block.Block;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
@@ -41,6 +46,8 @@ import org.apache.logging.log4j.message.MessageFormatMessageFactory;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Commands for assisting with debug operations.
@@ -56,6 +63,10 @@ public class CommandDebug extends SubCommand {
         addChildCommand(new CommandDebugTile());
         addChildCommand(new CommandTrain());
         addChildCommand(new CommandCartNumber());
+        addChildCommand(new CommandTokens());
+        addChildCommand(new CommandSleep());
+        addChildCommand(new CommandSync());
+        addChildCommand(new CommandSteam());
     }
 
     static void printLine(ICommandSender sender, String msg, Object... args) {
@@ -198,6 +209,95 @@ public class CommandDebug extends SubCommand {
         }
     }
 
+    static final class CommandTokens extends SubCommand {
+        CommandTokens() {
+            super("tokens");
+            setPermLevel(PermLevel.ADMIN);
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 0)
+                CommandHelpers.throwWrongUsage(sender, this);
+
+            World world = CommandHelpers.getWorld(sender);
+            printLine(sender, "Railcraft Token Ring Debug Start");
+            for (TokenRing ring : TokenManager.getManager(world).getTokenRings()) {
+                printLine(sender, "Ring {0} at {1}: {2} signals, {3} carts, last scan checked {4} carts in {5} us",
+                        ring.getUUID(), shortCoords(sender, ring.centroid()), ring.getSignals().size(),
+                        ring.getTrackedCarts().size(), ring.getLastScanCarts(), ring.getLastScanNanos() / 1000);
+            }
+            printLine(sender, "Railcraft Token Ring Debug End");
+        }
+    }
+
+    static final class CommandSleep extends SubCommand {
+        CommandSleep() {
+            super("sleep");
+            setPermLevel(PermLevel.ADMIN);
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 0)
+                CommandHelpers.throwWrongUsage(sender, this);
+
+            World world = CommandHelpers.getWorld(sender);
+            Map<String, int[]> counts = new TreeMap<>();
+            for (TileEntity tile : world.loadedTileEntityList) {
+                if (tile instanceof RailcraftTickingTileEntity) {
+                    int[] count = counts.computeIfAbsent(tile.getClass().getSimpleName(), k -> new int[2]);
+                    count[((RailcraftTickingTileEntity) tile).isSleeping() ? 1 : 0]++;
+                }
+            }
+            printLine(sender, "Railcraft Tile Sleep Debug Start");
+            counts.forEach((name, count) -> printLine(sender, "{0}: {1} awake, {2} sleeping", name, count[0], count[1]));
+            printLine(sender, "Railcraft Tile Sleep Debug End");
+        }
+    }
+
+    static final class CommandSync extends SubCommand {
+        CommandSync() {
+            super("sync");
+            setPermLevel(PermLevel.ADMIN);
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 0)
+                CommandHelpers.throwWrongUsage(sender, this);
+
+            printLine(sender, "Railcraft Tile Sync Debug Start");
+            TileSyncManager.INSTANCE.getStats().forEach((name, stats) ->
+                    printLine(sender, "{0}: {1} sent ({2} deltas), {3} skipped, {4} bytes",
+                            name, stats.getSent(), stats.getDeltas(), stats.getSkipped(), stats.getBytes()));
+            printLine(sender, "Batched packets: {0}", TileSyncManager.INSTANCE.getBatches());
+            printLine(sender, "Railcraft Tile Sync Debug End");
+        }
+    }
+
+    static final class CommandSteam extends SubCommand {
+        CommandSteam() {
+            super("steam");
+            setPermLevel(PermLevel.ADMIN);
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 0)
+                CommandHelpers.throwWrongUsage(sender, this);
+
+            World world = CommandHelpers.getWorld(sender);
+            printLine(sender, "Railcraft Steam Network Debug Start");
+            for (SteamNetwork network : SteamNetwork.getNetworks()) {
+                if (network.getOwner().getWorld() == world)
+                    printLine(sender, "[{0}]: {1} outlets, {2} mB/t",
+                            shortCoords(sender, network.getOwner().getPos()), network.getOutletCount(), network.getThroughput());
+            }
+            printLine(sender, "Railcraft Steam Network Debug End");
+        }
+    }
+
     public static class CommandDebugTile extends SubCommand {
         public CommandDebugTile() {
             super("tile");
@@ -13,6 +13,7 @@ import mods.railcraft.api.core.IVariantEnum;
 import mods.railcraft.api.signals.SignalTools;
 import mods.railcraft.common.blocks.RailcraftBlocks;
 import mods.railcraft.common.blocks.tracks.outfitted.TrackKits;
+import mods.railcraft.common.carts.BoreMiningCache;
 import mods.railcraft.common.carts.EntityTunnelBore;
 import mods.railcraft.common.carts.RailcraftCarts;
 import mods.railcraft.common.fluids.FluidTools;
@@ -82,10 +83,14 @@ public class RailcraftConfig {
     private static boolean printLinkingDebug;
     private static boolean printWorldspikeDebug;
     private static boolean printChargeDebug;
+    private static boolean chargeIncrementalGrids;
+    private static int chargeQueueBudget;
+    private static boolean chargeCompactSaveData;
     private static boolean deleteWorldspikes;
     private static String[] worldspikeCrafting;
     private static boolean worldspikesCanInteractWithPipes;
     private static boolean printWorldspikes;
+    private static int worldspikeCartLookahead;
     private static boolean minecartsBreakOnDrop;
     private static boolean adjustBasicCartDrag;
     private static boolean chestAllowLiquids;
@@ -103,6 +108,7 @@ public class RailcraftConfig {
     private static int minecartTankFillRate = 32;
     private static int launchRailMaxForce;
     private static int cartDispenserDelay;
+    private static int itemManipulatorRate;
     private static int minecartStackSize;
     private static int maxTankSize;
     private static int locomotiveHorsepower;
@@ -154,6 +160,9 @@ public class RailcraftConfig {
         configMain.removeCategory(configMain.getCategory("anchors"));
 
         printChargeDebug = get(CAT_CHARGE, "printDebug", false, "change to '{t}=true' to enabled Charge Network debug spam");
+        chargeIncrementalGrids = get(CAT_CHARGE, "incrementalGrids", true, "change to '{t}=false' to rebuild the whole Charge grid whenever a node is removed instead of only re-exploring the nodes around it");
+        chargeCompactSaveData = get(CAT_CHARGE, "compactSaveData", true, "change to '{t}=false' to save Charge battery levels in the old one entry per battery format, both formats are always read");
+        chargeQueueBudget = get(CAT_CHARGE, "queueBudget", 50, 1000, 50000, "the time in microseconds the Charge network may spend registering new nodes each tick, a few nodes are always registered regardless, min=50, default=1000, max=50000");
 
         loadWorldspikeSettings();
         loadBlockTweaks();
@@ -200,6 +209,7 @@ public class RailcraftConfig {
         worldspikeFuelPersonal.putAll(BlockItemParser.parseDictionary(worldspikeFuelPersonalArray, "Adding Personal Worldspike Fuel = {0}", BlockItemParser::parseItem, Float::parseFloat));
         worldspikeFuelPassive.putAll(BlockItemParser.parseDictionary(worldspikeFuelPassiveArray, "Adding Passive Worldspike Fuel = {0}", BlockItemParser::parseItem, Float::parseFloat));
         EntityTunnelBore.mineableStates.addAll(BlockItemParser.parseList(boreMineableBlocksString, "Tunnel Bore: Adding block to mineable list: {0}", BlockItemParser::parseBlock));
+        BoreMiningCache.INSTANCE.invalidate();
     }
 
     private static void loadClient() {
@@ -221,6 +231,7 @@ public class RailcraftConfig {
         worldspikeCrafting = configMain.getStringList("craftableWorldspikes", CAT_WORLDSPIKES, new String[]{"standard", "personal", "passive"}, "Controls which Worldspikes are craftable, they will still be available via Creative");
         printWorldspikes = get(CAT_WORLDSPIKES, "print.locations", false, "change to {t}=true to print Worldspike locations to the log on startup");
         printWorldspikeDebug = get(CAT_WORLDSPIKES, "print.debug", false, "change to '{t}=true' to log debug info for Worldspikes");
+        worldspikeCartLookahead = get(CAT_WORLDSPIKES, "cart.lookahead", 0, 2, 8, "the number of chunks a moving Worldspike Cart keeps loaded ahead of its train, beyond its usual radius\nchange to '{t}=0' to only load the chunks around the cart, min=0, default=2, max=8");
 
 
         configMain.addCustomCategoryComment(CAT_WORLDSPIKES_FUEL,
@@ -246,6 +257,8 @@ public class RailcraftConfig {
     private static void loadBlockTweaks() {
         cartDispenserDelay = get(CAT_TWEAKS_BLOCKS + ".cartdispenser", "delay", 0, 0, Integer.MAX_VALUE, "set the minimum number of seconds between cart dispensing, default=0");
 
+        itemManipulatorRate = get(CAT_TWEAKS_BLOCKS + ".manipulator", "itemsPerTick", 1, 1, 64, "the number of items an Item Loader or Unloader may move each tick, whole stacks are moved at once up to this limit, min=1, default=1, max=64");
+
         maxTankSize = get(CAT_TWEAKS_BLOCKS + ".irontank", "maxsize", 3, 9, 9, "Allows you to set the max Iron Tank base dimension, valid values are 3, 5, 7, and 9");
 
         allowTankStacking = get(CAT_TWEAKS_BLOCKS + ".irontank", "allow.stacking", true, "Change to '{t}=false' to disable the stacking of Iron Tanks");
@@ -742,6 +755,21 @@ public class RailcraftConfig {
         return printChargeDebug;
     }
 
+    public static boolean chargeIncrementalGrids() {
+        return chargeIncrementalGrids;
+    }
+
+    public static boolean chargeCompactSaveData() {
+        return chargeCompactSaveData;
+    }
+
+    /**
+     * @return the node registration budget in nanoseconds
+     */
+    public static long chargeQueueBudget() {
+        return chargeQueueBudget * 1000L;
+    }
+
     public static boolean worldspikesCanInteractWithPipes() {
         return worldspikesCanInteractWithPipes;
     }
@@ -762,6 +790,10 @@ public class RailcraftConfig {
         return ArrayUtils.contains(worldspikeCrafting, "passive");
     }
 
+    public static int worldspikeCartLookahead() {
+        return worldspikeCartLookahead;
+    }
+
     public static boolean printWorldspikeLocations() {
         return printWorldspikes;
     }
@@ -826,6 +858,10 @@ public class RailcraftConfig {
         return cartDispenserDelay;
     }
 
+    public static int getItemManipulatorRate() {
+        return itemManipulatorRate;
+    }
+
     public static int getTankCartFillRate() {
         return minecartTankFillRate;
     }
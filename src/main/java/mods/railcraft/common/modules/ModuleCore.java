@@ -21,7 +21,9 @@ import mods.railcraft.client.util.sounds.SoundLimiterTicker;
 import mods.railcraft.common.advancements.criterion.RailcraftAdvancementTriggers;
 import mods.railcraft.common.blocks.machine.MachineTileRegistry;
 import mods.railcraft.common.blocks.multi.MultiBlockHelper;
+import mods.railcraft.common.blocks.multi.StructureCache;
 import mods.railcraft.common.blocks.tracks.TrackConstants;
+import mods.railcraft.common.blocks.tracks.behaivor.TrackTopology;
 import mods.railcraft.common.carts.*;
 import mods.railcraft.common.commands.*;
 import mods.railcraft.common.core.Railcraft;
@@ -37,10 +39,12 @@ import mods.railcraft.common.plugins.forge.CraftingPlugin;
 import mods.railcraft.common.plugins.forge.LootPlugin;
 import mods.railcraft.common.plugins.forge.OreDictPlugin;
 import mods.railcraft.common.util.charge.CapabilityCartBatterySetup;
+import mods.railcraft.common.util.crafting.RecipeIndex;
 import mods.railcraft.common.util.entity.RailcraftDamageSource;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.network.PacketBuilder;
+import mods.railcraft.common.util.network.TileSyncManager;
 import net.minecraft.block.BlockDispenser;
 import net.minecraft.creativetab.CreativeTabs;
 import net.minecraft.dispenser.BehaviorDefaultDispenseItem;
@@ -155,6 +159,10 @@ public class ModuleCore extends RailcraftModulePayload {
                 MinecraftForge.EVENT_BUS.register(CrowbarHandler.instance());
                 MinecraftForge.EVENT_BUS.register(MinecartHooks.INSTANCE);
                 MinecraftForge.EVENT_BUS.register(LinkageHandler.getInstance());
+                MinecraftForge.EVENT_BUS.register(StructureCache.INSTANCE);
+                MinecraftForge.EVENT_BUS.register(TrackTopology.INSTANCE);
+                MinecraftForge.EVENT_BUS.register(RecipeIndex.class);
+                MinecraftForge.EVENT_BUS.register(TileSyncManager.INSTANCE);
 //                MinecraftForge.EVENT_BUS.register(new CraftingHandler());
                 MinecraftForge.EVENT_BUS.register(new SoundLimiterTicker());
                 MinecraftForge.EVENT_BUS.register(new MinecartRiderAIDisabler());
@@ -9,6 +9,7 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.modules.orehandlers;
 
+import mods.railcraft.common.carts.BoreMiningCache;
 import mods.railcraft.common.carts.EntityTunnelBore;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.misc.Game;
@@ -26,6 +27,7 @@ public class BoreOreHandler {
         ItemStack ore = event.getOre();
         if (InvTools.isEmpty(ore))
             return;
+        BoreMiningCache.INSTANCE.invalidate();
         if (ore.getItem() instanceof ItemBlock && oreClass.startsWith("ore")) {
             if (EntityTunnelBore.mineableOreTags.add(oreClass))
                 Game.log(Level.DEBUG, "Automation Module: Ore Tag Detected, adding to blocks Tunnel Bore can mine: {0}", oreClass);
@@ -13,6 +13,7 @@ package mods.railcraft.common.util.charge;
 import mods.railcraft.api.charge.IBatteryBlock;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Created by CovertJaguar on 10/29/2018 for Railcraft.
@@ -27,6 +28,8 @@ public class BatteryBlock implements IBatteryBlock {
     private State state = State.RECHARGEABLE;
     private double chargeDrawnThisTick;
     private double charge;
+    @Nullable BatteryIndex index;
+    int slot = -1;
 
     public BatteryBlock(BlockPos pos, Spec batterySpec) {
         this.pos = pos;
@@ -45,6 +48,8 @@ public class BatteryBlock implements IBatteryBlock {
 
     @Override
     public void setState(State state) {
+        if (this.state != state && index != null)
+            index.markUnsorted();
         this.state = state;
         this.stateImpl = StateImpl.valueOf(state.name());
     }
@@ -71,11 +76,13 @@ public class BatteryBlock implements IBatteryBlock {
 
     public void tick() {
         chargeDrawnThisTick = 0.0;
+        changed();
     }
 
     @Override
     public void setCharge(double charge) {
         this.charge = charge;
+        changed();
     }
 
     @Override
@@ -86,6 +93,7 @@ public class BatteryBlock implements IBatteryBlock {
     @Override
     public void addCharge(double charge) {
         this.charge += charge;
+        changed();
     }
 
     /**
@@ -96,7 +104,14 @@ public class BatteryBlock implements IBatteryBlock {
      */
     @Override
     public double removeCharge(double request) {
-        return stateImpl.removeCharge(this, request);
+        double removed = stateImpl.removeCharge(this, request);
+        changed();
+        return removed;
+    }
+
+    private void changed() {
+        if (index != null)
+            index.refresh(slot);
     }
 
     public double getPotentialDraw() {
@@ -0,0 +1,273 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.charge;
+
+import mods.railcraft.api.charge.IBatteryBlock;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the batteries of a {@link ChargeNetwork.ChargeGrid} bucketed by {@link IBatteryBlock.State}
+ * and sorted by efficiency inside each bucket.
+ *
+ * The per battery values and the per state totals are cached in primitive arrays and kept up to date
+ * by the batteries themselves, so the grid can answer charge queries without walking its batteries.
+ * The buckets are only rebuilt when a battery is added, removed or changes state.
+ */
+final class BatteryIndex {
+    private static final IBatteryBlock.State[] STATES = IBatteryBlock.State.values();
+    private static final Comparator<BatteryBlock> EFFICIENCY_ORDER = Comparator.comparingDouble(BatteryBlock::getEfficiency).reversed();
+    private static final boolean[] ACTIVE = new boolean[STATES.length];
+
+    static {
+        ACTIVE[IBatteryBlock.State.SOURCE.ordinal()] = true;
+        ACTIVE[IBatteryBlock.State.RECHARGEABLE.ordinal()] = true;
+        ACTIVE[IBatteryBlock.State.DISPOSABLE.ordinal()] = true;
+    }
+
+    private final Map<BlockPos, BatteryBlock> members = new LinkedHashMap<>();
+    private final int[] bucketStart = new int[STATES.length + 1];
+    private final double[] stateCharge = new double[STATES.length];
+    private final double[] stateCapacity = new double[STATES.length];
+    private final double[] stateAvailable = new double[STATES.length];
+    private final double[] statePotentialDraw = new double[STATES.length];
+    private final double[] stateEfficiency = new double[STATES.length];
+    private BatteryBlock[] sorted = new BatteryBlock[0];
+    private double[] charge = new double[0];
+    private double[] capacity = new double[0];
+    private double[] available = new double[0];
+    private double[] potentialDraw = new double[0];
+    private boolean unsorted;
+
+    public void add(BatteryBlock battery) {
+        remove(battery.getPos());
+        if (battery.index != null)
+            battery.index.remove(battery.getPos());
+        members.put(battery.getPos(), battery);
+        battery.index = this;
+        battery.slot = -1;
+        unsorted = true;
+    }
+
+    public void remove(BlockPos pos) {
+        BatteryBlock battery = members.remove(pos);
+        if (battery != null) {
+            detach(battery);
+            unsorted = true;
+        }
+    }
+
+    public void clear() {
+        members.values().forEach(this::detach);
+        members.clear();
+        unsorted = true;
+    }
+
+    private void detach(BatteryBlock battery) {
+        if (battery.index == this) {
+            battery.index = null;
+            battery.slot = -1;
+        }
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Called by a battery when its state changed, the buckets will be rebuilt on next access.
+     */
+    void markUnsorted() {
+        unsorted = true;
+    }
+
+    /**
+     * Called by a battery when its charge or draw changed, updates the cached values in place.
+     */
+    void refresh(int slot) {
+        if (unsorted || slot < 0)
+            return;
+        BatteryBlock battery = sorted[slot];
+        int state = battery.getState().ordinal();
+        double value = battery.getCharge();
+        stateCharge[state] += value - charge[slot];
+        charge[slot] = value;
+        value = battery.getCapacity();
+        stateCapacity[state] += value - capacity[slot];
+        capacity[slot] = value;
+        value = battery.getAvailableCharge();
+        stateAvailable[state] += value - available[slot];
+        available[slot] = value;
+        value = battery.getPotentialDraw();
+        statePotentialDraw[state] += value - potentialDraw[slot];
+        potentialDraw[slot] = value;
+    }
+
+    private void sort() {
+        int size = members.size();
+        if (sorted.length < size || sorted.length > size * 4) {
+            sorted = new BatteryBlock[size];
+            charge = new double[size];
+            capacity = new double[size];
+            available = new double[size];
+            potentialDraw = new double[size];
+        } else {
+            Arrays.fill(sorted, size, sorted.length, null);
+        }
+
+        Arrays.fill(bucketStart, 0);
+        for (BatteryBlock battery : members.values()) {
+            bucketStart[battery.getState().ordinal() + 1]++;
+        }
+        for (int i = 1; i < bucketStart.length; i++) {
+            bucketStart[i] += bucketStart[i - 1];
+        }
+        int[] cursor = Arrays.copyOf(bucketStart, STATES.length);
+        for (BatteryBlock battery : members.values()) {
+            sorted[cursor[battery.getState().ordinal()]++] = battery;
+        }
+        for (int i = 0; i < STATES.length; i++) {
+            if (bucketEnd(i) - bucketStart[i] > 1)
+                Arrays.sort(sorted, bucketStart[i], bucketEnd(i), EFFICIENCY_ORDER);
+        }
+        for (int slot = 0; slot < size; slot++) {
+            sorted[slot].slot = slot;
+        }
+        unsorted = false;
+        recalculate();
+    }
+
+    /**
+     * Rebuilds all the cached values from the batteries, discarding any accumulated rounding error.
+     */
+    public void recalculate() {
+        if (unsorted) {
+            sort();
+            return;
+        }
+        Arrays.fill(stateCharge, 0.0);
+        Arrays.fill(stateCapacity, 0.0);
+        Arrays.fill(stateAvailable, 0.0);
+        Arrays.fill(statePotentialDraw, 0.0);
+        Arrays.fill(stateEfficiency, 0.0);
+        for (int state = 0; state < STATES.length; state++) {
+            for (int slot = bucketStart[state]; slot < bucketEnd(state); slot++) {
+                BatteryBlock battery = sorted[slot];
+                charge[slot] = battery.getCharge();
+                capacity[slot] = battery.getCapacity();
+                available[slot] = battery.getAvailableCharge();
+                potentialDraw[slot] = battery.getPotentialDraw();
+                stateCharge[state] += charge[slot];
+                stateCapacity[state] += capacity[slot];
+                stateAvailable[state] += available[slot];
+                statePotentialDraw[state] += potentialDraw[slot];
+                stateEfficiency[state] += battery.getEfficiency();
+            }
+        }
+    }
+
+    private void validate() {
+        if (unsorted)
+            sort();
+    }
+
+    private int bucketEnd(int state) {
+        return bucketStart[state + 1];
+    }
+
+    /**
+     * The first slot of the bucket, batteries in a bucket are ordered from most to least efficient.
+     */
+    public int start(IBatteryBlock.State state) {
+        validate();
+        return bucketStart[state.ordinal()];
+    }
+
+    public int end(IBatteryBlock.State state) {
+        validate();
+        return bucketEnd(state.ordinal());
+    }
+
+    /**
+     * The first slot of all batteries, slots are ordered by state, then from most to least efficient.
+     */
+    public int start() {
+        validate();
+        return 0;
+    }
+
+    public int end() {
+        validate();
+        return members.size();
+    }
+
+    public BatteryBlock get(int slot) {
+        return sorted[slot];
+    }
+
+    public boolean isActive(int slot) {
+        return ACTIVE[sorted[slot].getState().ordinal()];
+    }
+
+    public boolean isEmpty(IBatteryBlock.State state) {
+        return start(state) == end(state);
+    }
+
+    public double getCharge(IBatteryBlock.State state) {
+        validate();
+        return stateCharge[state.ordinal()];
+    }
+
+    public double getCapacity(IBatteryBlock.State state) {
+        validate();
+        return stateCapacity[state.ordinal()];
+    }
+
+    public double getActiveCharge() {
+        return sumActive(stateCharge);
+    }
+
+    public double getActiveCapacity() {
+        return sumActive(stateCapacity);
+    }
+
+    public double getActiveAvailableCharge() {
+        return sumActive(stateAvailable);
+    }
+
+    public double getActivePotentialDraw() {
+        return sumActive(statePotentialDraw);
+    }
+
+    public double getActiveEfficiency() {
+        double efficiency = sumActive(stateEfficiency);
+        int count = 0;
+        for (int state = 0; state < STATES.length; state++) {
+            if (ACTIVE[state])
+                count += bucketEnd(state) - bucketStart[state];
+        }
+        return count == 0 ? 1.0 : efficiency / count;
+    }
+
+    private double sumActive(double[] totals) {
+        validate();
+        double sum = 0.0;
+        for (int state = 0; state < STATES.length; state++) {
+            if (ACTIVE[state])
+                sum += totals[state];
+        }
+        return sum;
+    }
+}
@@ -10,28 +10,36 @@
 
 package mods.railcraft.common.util.charge;
 
-import it.unimi.dsi.fastutil.longs.Long2DoubleLinkedOpenHashMap;
-import it.unimi.dsi.fastutil.longs.Long2DoubleMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.plugins.forge.NBTPlugin;
 import mods.railcraft.common.util.misc.Game;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.storage.MapStorage;
 import net.minecraft.world.storage.WorldSavedData;
 import org.apache.logging.log4j.Level;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Created by CovertJaguar on 8/1/2016 for Railcraft.
+ *
+ * Charge levels are stored in parallel arrays partitioned by chunk. Each partition keeps the tag it was last
+ * saved as and is only serialized again once one of its levels has moved by more than {@link #EPSILON}.
+ * The legacy per battery list is still read on load, and written instead when compact saves are disabled.
  */
 // TODO This thing needs to be network aware or something. Otherwise we might see collisions between networks.
 public final class BatterySaveData extends WorldSavedData {
     private static final String NAME = "railcraft.batteries";
-    private final Long2DoubleMap chargeLevels = new Long2DoubleLinkedOpenHashMap();
+    private static final double EPSILON = 1.0;
+    private final Long2ObjectLinkedOpenHashMap<Partition> partitions = new Long2ObjectLinkedOpenHashMap<>();
 
     public static BatterySaveData forWorld(World world) {
         MapStorage storage = world.getPerWorldStorage();
@@ -45,27 +53,43 @@ public final class BatterySaveData extends WorldSavedData {
 
     BatterySaveData() {
         super(NAME);
-        chargeLevels.defaultReturnValue(Double.NaN);
     }
 
     @Deprecated // called by reflection
     public BatterySaveData(String name) {
         super(name);
-        chargeLevels.defaultReturnValue(Double.NaN);
     }
 
     @Override
     public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
         if (RailcraftConfig.printChargeDebug())
             Game.log(Level.INFO, "Saving Charge Battery data...");
-        NBTTagList list = new NBTTagList();
-        for (Long2DoubleMap.Entry entry : chargeLevels.long2DoubleEntrySet()) {
-            NBTTagCompound dataEntry = new NBTTagCompound();
-            NBTPlugin.writeBlockPos(dataEntry, "pos", BlockPos.fromLong(entry.getLongKey()));
-            dataEntry.setDouble("value", entry.getDoubleValue());
-            list.appendTag(dataEntry);
+        if (RailcraftConfig.chargeCompactSaveData()) {
+            NBTTagList list = new NBTTagList();
+            int written = 0;
+            for (Partition partition : partitions.values()) {
+                if (partition.tag == null) {
+                    partition.save();
+                    written++;
+                }
+                list.appendTag(partition.tag);
+            }
+            nbt.setTag("partitions", list);
+            if (RailcraftConfig.printChargeDebug())
+                Game.log(Level.INFO, "Wrote {0} of {1} Charge Battery partitions", written, partitions.size());
+        } else {
+            NBTTagList list = new NBTTagList();
+            for (Partition partition : partitions.values()) {
+                partition.markSaved();
+                for (int i = 0; i < partition.size; i++) {
+                    NBTTagCompound dataEntry = new NBTTagCompound();
+                    NBTPlugin.writeBlockPos(dataEntry, "pos", BlockPos.fromLong(partition.positions[i]));
+                    dataEntry.setDouble("value", partition.charges[i]);
+                    list.appendTag(dataEntry);
+                }
+            }
+            nbt.setTag("batteries", list);
         }
-        nbt.setTag("batteries", list);
         return nbt;
     }
 
@@ -77,24 +101,159 @@ public final class BatterySaveData extends WorldSavedData {
         for (NBTTagCompound entry : list) {
             BlockPos pos = NBTPlugin.readBlockPos(entry, "pos");
             if (pos != null)
-                chargeLevels.put(pos.toLong(), entry.getDouble("value"));
+                partition(pos, true).put(pos.toLong(), entry.getDouble("value"));
+        }
+        for (NBTTagCompound tag : NBTPlugin.getNBTList(nbt, "partitions", NBTTagCompound.class)) {
+            int chunkX = tag.getInteger("x");
+            int chunkZ = tag.getInteger("z");
+            int[] positions = tag.getIntArray("pos");
+            int[] charges = tag.getIntArray("charge");
+            if (charges.length != positions.length * 2)
+                continue;
+            Partition partition = partitions.get(ChunkPos.asLong(chunkX, chunkZ));
+            for (int i = 0; i < positions.length; i++) {
+                BlockPos pos = unpackPos(chunkX, chunkZ, positions[i]);
+                if (partition == null)
+                    partition = partition(pos, true);
+                partition.put(pos.toLong(), Double.longBitsToDouble((long) charges[i * 2] << 32 | charges[i * 2 + 1] & 0xFFFFFFFFL));
+            }
+        }
+        // What was just read is what is on disk, later changes are measured against it
+        for (Partition partition : partitions.values()) {
+            if (RailcraftConfig.chargeCompactSaveData())
+                partition.save();
+            else
+                partition.markSaved();
         }
     }
 
     public void initBattery(BatteryBlock battery) {
-        double charge = chargeLevels.get(battery.getPos().toLong());
+        double charge = Double.NaN;
+        Partition partition = partition(battery.getPos(), false);
+        if (partition != null)
+            charge = partition.get(battery.getPos().toLong());
         if (Double.isNaN(charge))
             charge = 0.0;
         battery.setCharge(charge);
     }
 
     public void updateBatteryRecord(BatteryBlock battery) {
-        chargeLevels.put(battery.getPos().toLong(), battery.getCharge());
-        markDirty();
+        Partition partition = partition(battery.getPos(), true);
+        if (partition.put(battery.getPos().toLong(), battery.getCharge()))
+            markDirty();
     }
 
     public void removeBattery(BlockPos pos) {
-        if (!Double.isNaN(chargeLevels.remove(pos.toLong())))
+        Partition partition = partition(pos, false);
+        if (partition != null && partition.remove(pos.toLong())) {
+            if (partition.size == 0)
+                partitions.remove(partition.chunk);
             markDirty();
+        }
+    }
+
+    private @Nullable Partition partition(BlockPos pos, boolean create) {
+        long chunk = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        Partition partition = partitions.get(chunk);
+        if (partition == null && create) {
+            partition = new Partition(chunk, pos.getX() >> 4, pos.getZ() >> 4);
+            partitions.put(chunk, partition);
+        }
+        return partition;
+    }
+
+    private static int packPos(BlockPos pos) {
+        return pos.getY() << 8 | (pos.getZ() & 15) << 4 | pos.getX() & 15;
+    }
+
+    private static BlockPos unpackPos(int chunkX, int chunkZ, int packed) {
+        return new BlockPos(chunkX << 4 | packed & 15, packed >> 8, chunkZ << 4 | packed >> 4 & 15);
+    }
+
+    private static final class Partition {
+        private final long chunk;
+        private final int chunkX;
+        private final int chunkZ;
+        private final Long2IntOpenHashMap slots = new Long2IntOpenHashMap();
+        private long[] positions = new long[4];
+        private double[] charges = new double[4];
+        private double[] savedCharges = new double[4];
+        private int size;
+        private @Nullable NBTTagCompound tag;
+
+        private Partition(long chunk, int chunkX, int chunkZ) {
+            this.chunk = chunk;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            slots.defaultReturnValue(-1);
+        }
+
+        private double get(long pos) {
+            int slot = slots.get(pos);
+            return slot < 0 ? Double.NaN : charges[slot];
+        }
+
+        /**
+         * @return true if the partition needs to be saved again
+         */
+        private boolean put(long pos, double charge) {
+            int slot = slots.get(pos);
+            if (slot < 0) {
+                if (size == positions.length) {
+                    positions = Arrays.copyOf(positions, size * 2);
+                    charges = Arrays.copyOf(charges, size * 2);
+                    savedCharges = Arrays.copyOf(savedCharges, size * 2);
+                }
+                slot = size++;
+                slots.put(pos, slot);
+                positions[slot] = pos;
+                charges[slot] = charge;
+                savedCharges[slot] = Double.NaN;
+                tag = null;
+                return true;
+            }
+            charges[slot] = charge;
+            if (!(Math.abs(charge - savedCharges[slot]) <= EPSILON)) {
+                tag = null;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean remove(long pos) {
+            int slot = slots.remove(pos);
+            if (slot < 0)
+                return false;
+            int last = --size;
+            if (slot != last) {
+                positions[slot] = positions[last];
+                charges[slot] = charges[last];
+                savedCharges[slot] = savedCharges[last];
+                slots.put(positions[slot], slot);
+            }
+            tag = null;
+            return true;
+        }
+
+        private void markSaved() {
+            System.arraycopy(charges, 0, savedCharges, 0, size);
+        }
+
+        private void save() {
+            int[] packedPositions = new int[size];
+            int[] packedCharges = new int[size * 2];
+            for (int i = 0; i < size; i++) {
+                packedPositions[i] = packPos(BlockPos.fromLong(positions[i]));
+                long bits = Double.doubleToLongBits(charges[i]);
+                packedCharges[i * 2] = (int) (bits >>> 32);
+                packedCharges[i * 2 + 1] = (int) bits;
+                savedCharges[i] = charges[i];
+            }
+            tag = new NBTTagCompound();
+            tag.setInteger("x", chunkX);
+            tag.setInteger("z", chunkZ);
+            tag.setIntArray("pos", packedPositions);
+            tag.setIntArray("charge", packedCharges);
+        }
     }
 }
@@ -14,6 +14,10 @@ import com.google.common.collect.ForwardingCollection;
 import com.google.common.collect.ForwardingMap;
 import com.google.common.collect.ForwardingSet;
 import com.google.common.collect.Iterators;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
 import mods.railcraft.api.charge.Charge;
 import mods.railcraft.api.charge.IBatteryBlock;
 import mods.railcraft.api.charge.IChargeBlock;
@@ -42,8 +46,6 @@ import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Created by CovertJaguar on 7/23/2016 for Railcraft.
@@ -52,10 +54,14 @@ import java.util.stream.Stream;
  */
 public class ChargeNetwork implements Charge.INetwork {
     public static final double CHARGE_PER_DAMAGE = 1000.0;
+    private static final int MIN_QUEUE_DRAIN = 64;
+    private static final int ACTIVE_SECTION_TICKS = 100;
     public static final EnumMap<IChargeBlock.ConnectType, ConnectionMap> CONNECTION_MAPS = new EnumMap<>(IChargeBlock.ConnectType.class);
     private final ChargeGrid NULL_GRID = new NullGrid();
     private final Map<BlockPos, ChargeNode> nodes = new HashMap<>();
-    private final Map<BlockPos, ChargeNode> queue = new LinkedHashMap<>();
+    private final Long2ObjectLinkedOpenHashMap<Map<BlockPos, ChargeNode>> queue = new Long2ObjectLinkedOpenHashMap<>();
+    private final Long2LongOpenHashMap activeSections = new Long2LongOpenHashMap();
+    private final Map<BlockPos, Optional<IChargeBlock.ChargeSpec>> specCache = new HashMap<>();
     @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
     private final Set<ChargeNode> tickingNodes = new LinkedHashSet<>();
     private final Set<ChargeGrid> grids = Collections.newSetFromMap(new WeakHashMap<>());
@@ -63,6 +69,12 @@ public class ChargeNetwork implements Charge.INetwork {
     private final Charge network;
     private final WeakReference<World> world;
     private final BatterySaveData batterySaveData;
+    private int gridEdits;
+    private long gridEditVisits;
+    private long clock;
+    private int queueDepth;
+    private int drainedLastTick;
+    private double averageDrainPerTick;
 
     public ChargeNetwork(Charge network, World world) {
         this.network = network;
@@ -75,64 +87,169 @@ public class ChargeNetwork implements Charge.INetwork {
             Game.log(Level.INFO, msg, args);
     }
 
+    private void recordGridEdit(String edit, BlockPos pos, int visited) {
+        gridEdits++;
+        gridEditVisits += visited;
+        printDebug("Grid {0} at {1}: visited {2} nodes, average {3} per edit", edit, pos, visited, gridEditVisits / gridEdits);
+    }
+
     public void tick() {
+        clock++;
         tickingNodes.removeIf(ChargeNode::checkUsageRecordingCompletion);
 
         // Process the queue of nodes waiting to be added/removed from the network
-        Map<BlockPos, ChargeNode> added = new LinkedHashMap<>();
-        Iterator<Map.Entry<BlockPos, ChargeNode>> iterator = queue.entrySet().iterator();
+        // sections around nodes that are drawing charge go first, then the rest in the order they were queued
+        long deadline = System.nanoTime() + RailcraftConfig.chargeQueueBudget();
+        int drained = 0;
+        Set<BlockPos> newNodes = new HashSet<>();
+        if (!queue.isEmpty()) {
+            for (Iterator<Long2LongMap.Entry> it = activeSections.long2LongEntrySet().iterator(); it.hasNext(); ) {
+                if (clock - it.next().getLongValue() > ACTIVE_SECTION_TICKS)
+                    it.remove();
+            }
+            LongIterator sections = activeSections.keySet().iterator();
+            while (sections.hasNext() && !queue.isEmpty() && hasQueueBudget(drained, deadline)) {
+                long section = sections.nextLong();
+                for (int x = -1; x <= 1; x++) {
+                    for (int y = -1; y <= 1; y++) {
+                        for (int z = -1; z <= 1; z++) {
+                            drained += drainSection(offsetSection(section, x, y, z), drained, deadline, newNodes);
+                        }
+                    }
+                }
+            }
+            while (!queue.isEmpty() && hasQueueBudget(drained, deadline)) {
+                drained += drainSection(queue.firstLongKey(), drained, deadline, newNodes);
+            }
+        }
+        drainedLastTick = drained;
+        averageDrainPerTick = (averageDrainPerTick * 19D + drained) / 20D;
+
+        // Remove discarded grids and tick what's left
+        grids.removeIf(g -> g.invalid);
+        grids.forEach(ChargeGrid::tick);
+
+        if (!newNodes.isEmpty())
+            printDebug("Nodes queued: {0}", newNodes.size());
+        if (clock % 20 == 0 && (queueDepth > 0 || drained > 0))
+            printDebug("Node queue: {0} waiting, {1} processed last tick, {2} per tick average", queueDepth, drainedLastTick, averageDrainPerTick);
+    }
+
+    private boolean hasQueueBudget(int drained, long deadline) {
+        return drained < MIN_QUEUE_DRAIN || System.nanoTime() < deadline;
+    }
+
+    /**
+     * Processes the queued nodes of a single chunk section.
+     *
+     * The connections of the added nodes are explored together, so the block lookups they share
+     * are only done once.
+     *
+     * @return the number of queue entries processed
+     */
+    private int drainSection(long section, int drained, long deadline, Set<BlockPos> newNodes) {
+        Map<BlockPos, ChargeNode> batch = queue.get(section);
+        if (batch == null)
+            return 0;
+        List<ChargeNode> added = new ArrayList<>();
+        Iterator<Map.Entry<BlockPos, ChargeNode>> iterator = batch.entrySet().iterator();
         int count = 0;
-        while (iterator.hasNext() && count < 500) {
+        while (iterator.hasNext() && hasQueueBudget(drained + count, deadline)) {
             count++;
             Map.Entry<BlockPos, ChargeNode> action = iterator.next();
             if (action.getValue() == null) {
                 removeNodeImpl(action.getKey());
             } else {
                 addNodeImpl(action.getKey(), action.getValue());
-                added.put(action.getKey(), action.getValue());
+                added.add(action.getValue());
             }
             iterator.remove();
         }
+        if (batch.isEmpty())
+            queue.remove(section);
+        queueDepth -= count;
 
         // Search for connected nodes of recently added nodes and register them too
         // helps fill out the graph faster and more reliably
-        Set<BlockPos> newNodes = new HashSet<>();
-        for (Map.Entry<BlockPos, ChargeNode> addedNode : added.entrySet()) {
-            forConnections(addedNode.getKey(), (conPos, conState) -> {
-                if (addNode(conPos, conState))
+        for (ChargeNode addedNode : added) {
+            forConnections(addedNode.pos, (conPos, conSpec) -> {
+                if (addNode(conPos, conSpec))
                     newNodes.add(conPos);
             });
-            if (addedNode.getValue().isGridNull())
-                addedNode.getValue().constructGrid();
+            if (addedNode.isGridNull())
+                addedNode.constructGrid();
         }
+        specCache.clear();
+        return count;
+    }
 
-        // Remove discarded grids and tick what's left
-        grids.removeIf(g -> g.invalid);
-        grids.forEach(ChargeGrid::tick);
+    private void enqueue(BlockPos pos, @Nullable ChargeNode node) {
+        long section = sectionKey(pos);
+        Map<BlockPos, ChargeNode> batch = queue.get(section);
+        if (batch == null) {
+            batch = new LinkedHashMap<>();
+            queue.put(section, batch);
+        }
+        if (!batch.containsKey(pos))
+            queueDepth++;
+        batch.put(pos, node);
+    }
 
-        if (!newNodes.isEmpty())
-            printDebug("Nodes queued: {0}", newNodes.size());
+    private static long sectionKey(BlockPos pos) {
+        return sectionKey(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
     }
 
-    private void forConnections(BlockPos pos, BiConsumer<BlockPos, IBlockState> action) {
+    private static long sectionKey(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFL) << 42 | ((long) y & 0xFFFFFL) << 22 | (long) z & 0x3FFFFFL;
+    }
+
+    private static long offsetSection(long section, int x, int y, int z) {
+        int sx = (int) (section >> 42);
+        int sy = (int) (section << 22 >> 44);
+        int sz = (int) (section << 42 >> 42);
+        return sectionKey(sx + x, sy + y, sz + z);
+    }
+
+    /**
+     * The number of nodes waiting to be added to or removed from the network.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getDrainedLastTick() {
+        return drainedLastTick;
+    }
+
+    public double getAverageDrainPerTick() {
+        return averageDrainPerTick;
+    }
+
+    /**
+     * Looks up the charge spec of a block, remembering it until the current section batch is done.
+     */
+    private @Nullable IChargeBlock.ChargeSpec getCachedChargeDef(World worldObj, BlockPos pos) {
+        Optional<IChargeBlock.ChargeSpec> chargeSpec = specCache.get(pos);
+        if (chargeSpec == null) {
+            chargeSpec = Optional.ofNullable(getChargeDef(WorldPlugin.getBlockState(worldObj, pos), pos));
+            specCache.put(pos, chargeSpec);
+        }
+        return chargeSpec.orElse(null);
+    }
+
+    private void forConnections(BlockPos pos, BiConsumer<BlockPos, IChargeBlock.ChargeSpec> action) {
         World worldObj = world.get();
         if (worldObj == null)
             return;
-        IBlockState state = WorldPlugin.getBlockState(worldObj, pos);
-        if (state.getBlock() instanceof IChargeBlock) {
-            IChargeBlock.ChargeSpec chargeSpec = getChargeDef(state, pos);
-            if (chargeSpec != null) {
-                CONNECTION_MAPS.get(chargeSpec.getConnectType()).forEach((k, v) -> {
-                    BlockPos otherPos = pos.add(k);
-                    IBlockState otherState = WorldPlugin.getBlockState(worldObj, otherPos);
-                    if (otherState.getBlock() instanceof IChargeBlock) {
-                        IChargeBlock.ChargeSpec other = getChargeDef(otherState, otherPos);
-                        if (other != null && CONNECTION_MAPS.get(other.getConnectType()).get(pos.subtract(otherPos)).contains(chargeSpec.getConnectType())) {
-                            action.accept(otherPos, otherState);
-                        }
-                    }
-                });
-            }
+        IChargeBlock.ChargeSpec chargeSpec = getCachedChargeDef(worldObj, pos);
+        if (chargeSpec != null) {
+            CONNECTION_MAPS.get(chargeSpec.getConnectType()).forEach((k, v) -> {
+                BlockPos otherPos = pos.add(k);
+                IChargeBlock.ChargeSpec other = getCachedChargeDef(worldObj, otherPos);
+                if (other != null && CONNECTION_MAPS.get(other.getConnectType()).get(pos.subtract(otherPos)).contains(chargeSpec.getConnectType())) {
+                    action.accept(otherPos, other);
+                }
+            });
         }
     }
 
@@ -163,17 +280,23 @@ public class ChargeNetwork implements Charge.INetwork {
         ChargeNode chargeNode = nodes.remove(pos);
         if (chargeNode != null) {
             chargeNode.invalid = true;
-            chargeNode.chargeGrid.destroy(true);
+            if (RailcraftConfig.chargeIncrementalGrids())
+                chargeNode.chargeGrid.split(chargeNode);
+            else
+                chargeNode.chargeGrid.destroy(true);
         }
         batterySaveData.removeBattery(pos);
     }
 
     @Override
     public boolean addNode(BlockPos pos, IBlockState state) {
-        IChargeBlock.ChargeSpec chargeSpec = getChargeDef(state, pos);
+        return addNode(pos, getChargeDef(state, pos));
+    }
+
+    private boolean addNode(BlockPos pos, @Nullable IChargeBlock.ChargeSpec chargeSpec) {
         if (chargeSpec != null && needsNode(pos, chargeSpec)) {
             printDebug("Registering Node: {0}->{1}", pos, chargeSpec);
-            queue.put(pos, new ChargeNode(pos, chargeSpec));
+            enqueue(pos, new ChargeNode(pos, chargeSpec));
             return true;
         }
         return false;
@@ -196,7 +319,7 @@ public class ChargeNetwork implements Charge.INetwork {
 
     @Override
     public void removeNode(BlockPos pos) {
-        queue.put(pos, null);
+        enqueue(pos, null);
     }
 
     public ChargeGrid grid(BlockPos pos) {
@@ -228,7 +351,7 @@ public class ChargeNetwork implements Charge.INetwork {
 
     public class ChargeGrid extends ForwardingSet<ChargeNode> {
         private final Set<ChargeNode> chargeNodes = new HashSet<>();
-        private final List<BatteryBlock> batteries = new ArrayList<>();
+        private final BatteryIndex batteries = new BatteryIndex();
         private boolean invalid;
         private double totalLosses;
         private double chargeUsedThisTick;
@@ -245,22 +368,15 @@ public class ChargeNetwork implements Charge.INetwork {
             if (added)
                 totalLosses += chargeNode.chargeSpec.getLosses();
             chargeNode.chargeGrid = this;
-            batteries.removeIf(b -> b.getPos().equals(chargeNode.pos));
             if (chargeNode.chargeBattery.isPresent()) {
-                batteries.removeIf(b -> b.getPos().equals(chargeNode.pos));
                 batteries.add(chargeNode.chargeBattery.get());
-                sortBatteries();
             } else {
+                batteries.remove(chargeNode.pos);
                 batterySaveData.removeBattery(chargeNode.pos);
             }
             return added;
         }
 
-        private void sortBatteries() {
-            batteries.sort(Comparator.comparing(BatteryBlock::getState)
-                    .thenComparing(Comparator.comparing(BatteryBlock::getEfficiency).reversed()));
-        }
-
         @Override
         public boolean addAll(Collection<? extends ChargeNode> collection) {
             return standardAddAll(collection);
@@ -310,62 +426,149 @@ public class ChargeNetwork implements Charge.INetwork {
             throw new UnsupportedOperationException();
         }
 
+        private void removeNode(ChargeNode chargeNode) {
+            if (chargeNodes.remove(chargeNode))
+                totalLosses -= chargeNode.chargeSpec.getLosses();
+            batteries.remove(chargeNode.pos);
+        }
+
+        /**
+         * Removes the node from the grid and checks whether that disconnected the grid.
+         *
+         * A search is started from each former neighbour of the node and the searches are advanced in turn.
+         * Searches that meet are merged, and a search that runs out of nodes has found a component that is no
+         * longer connected, which is moved to a new grid. Once a single search remains, everything it has not
+         * reached is still connected to it and stays in this grid, so the work done is proportional to the
+         * smaller side of the split rather than the size of the grid.
+         */
+        private void split(ChargeNode removed) {
+            if (!isActive())
+                return;
+            removeNode(removed);
+            removed.chargeGrid = NULL_GRID;
+
+            Map<ChargeNode, Component> owners = new HashMap<>();
+            Deque<Component> searches = new ArrayDeque<>();
+            removed.forConnections(n -> {
+                if (n.chargeGrid == this && !owners.containsKey(n)) {
+                    Component search = new Component(n);
+                    owners.put(n, search);
+                    searches.add(search);
+                }
+            });
+
+            int visited = 0;
+            int live = searches.size();
+            List<ChargeNode> connections = new ArrayList<>();
+            while (live > 1) {
+                Component polled = Objects.requireNonNull(searches.poll());
+                if (polled.absorbed)
+                    continue;
+                ChargeNode next = polled.frontier.poll();
+                if (next == null) {
+                    live--;
+                    visited += polled.nodes.size();
+                    splitOff(polled.nodes);
+                    continue;
+                }
+                visited++;
+                Component search = polled;
+                connections.clear();
+                next.forConnections(connections::add);
+                for (ChargeNode n : connections) {
+                    if (n.chargeGrid != this)
+                        continue;
+                    Component owner = owners.get(n);
+                    if (owner == null) {
+                        owners.put(n, search);
+                        search.add(n);
+                    } else if (owner != search) {
+                        Component larger = owner.nodes.size() >= search.nodes.size() ? owner : search;
+                        Component smaller = larger == owner ? search : owner;
+                        for (ChargeNode moved : smaller.nodes) {
+                            owners.put(moved, larger);
+                        }
+                        larger.nodes.addAll(smaller.nodes);
+                        larger.frontier.addAll(smaller.frontier);
+                        smaller.absorbed = true;
+                        live--;
+                        search = larger;
+                    }
+                }
+                if (!polled.absorbed)
+                    searches.offer(polled);
+            }
+
+            if (size() <= 1)
+                destroy(true);
+            recordGridEdit("split", removed.pos, visited);
+        }
+
+        private void splitOff(Set<ChargeNode> component) {
+            if (component.size() == 1) {
+                ChargeNode node = component.iterator().next();
+                removeNode(node);
+                node.chargeGrid = NULL_GRID;
+                return;
+            }
+            ChargeGrid grid = new ChargeGrid();
+            grids.add(grid);
+            for (ChargeNode node : component) {
+                removeNode(node);
+                grid.add(node);
+            }
+            printDebug("Splitting Grid: {0}->{1}", this, grid);
+        }
+
         private void tick() {
-            sortBatteries();
+            // charge levels can be changed outside the grid, so start each tick from fresh totals
+            batteries.recalculate();
 
             removeCharge(getLosses());
 
             // balance the charge in all the rechargeable batteries in the grid
-            Set<BatteryBlock> rechargeable = batteries(IBatteryBlock.State.RECHARGEABLE).collect(Collectors.toSet());
-
-            double capacity = rechargeable.stream().mapToDouble(BatteryBlock::getCapacity).sum();
+            double capacity = batteries.getCapacity(IBatteryBlock.State.RECHARGEABLE);
             if (capacity > 0.0) {
-                double charge = rechargeable.stream().mapToDouble(BatteryBlock::getCharge).sum();
+                double charge = batteries.getCharge(IBatteryBlock.State.RECHARGEABLE);
                 final double neededCharge = capacity - charge;
                 if (neededCharge > 0) {
-                    charge += removeCharge(batteries(IBatteryBlock.State.SOURCE).collect(Collectors.toList()), neededCharge);
+                    charge += removeCharge(IBatteryBlock.State.SOURCE, neededCharge);
                 }
                 final double chargeLevel = charge / capacity;
-                rechargeable.forEach(bat -> {
+                for (int i = batteries.start(IBatteryBlock.State.RECHARGEABLE); i < batteries.end(IBatteryBlock.State.RECHARGEABLE); i++) {
+                    BatteryBlock bat = batteries.get(i);
                     bat.setCharge(chargeLevel * bat.getCapacity());
                     batterySaveData.updateBatteryRecord(bat);
-                });
+                }
             }
 
-            batteries.forEach(BatteryBlock::tick);
+            for (int i = batteries.start(); i < batteries.end(); i++) {
+                batteries.get(i).tick();
+            }
 
             // track usage patterns
             averageUsagePerTick = (averageUsagePerTick * 49D + chargeUsedThisTick) / 50D;
             chargeUsedThisTick = 0.0;
         }
 
-        private Stream<BatteryBlock> batteries(IBatteryBlock.State... state) {
-            List<IBatteryBlock.State> list = Arrays.asList(state);
-            return batteries.stream().filter(b -> list.contains(b.getState()));
-        }
-
-        private Stream<BatteryBlock> activeBatteries() {
-            return batteries(IBatteryBlock.State.SOURCE, IBatteryBlock.State.RECHARGEABLE, IBatteryBlock.State.DISPOSABLE);
-        }
-
         public double getCharge() {
-            return activeBatteries().mapToDouble(BatteryBlock::getCharge).sum();
+            return batteries.getActiveCharge();
         }
 
         public double getCapacity() {
-            return activeBatteries().mapToDouble(BatteryBlock::getCapacity).sum();
+            return batteries.getActiveCapacity();
         }
 
         public double getAvailableCharge() {
-            return activeBatteries().mapToDouble(BatteryBlock::getAvailableCharge).sum();
+            return batteries.getActiveAvailableCharge();
         }
 
         public double getPotentialDraw() {
-            return activeBatteries().mapToDouble(BatteryBlock::getPotentialDraw).sum();
+            return batteries.getActivePotentialDraw();
         }
 
         public double getEfficiency() {
-            return activeBatteries().mapToDouble(BatteryBlock::getEfficiency).average().orElse(1.0);
+            return batteries.getActiveEfficiency();
         }
 
         public int getComparatorOutput() {
@@ -394,7 +597,7 @@ public class ChargeNetwork implements Charge.INetwork {
         }
 
         public boolean isInfinite() {
-            return batteries.stream().anyMatch(b -> b.getState() == IBatteryBlock.State.INFINITE);
+            return !batteries.isEmpty(IBatteryBlock.State.INFINITE);
         }
 
         public boolean isActive() {
@@ -413,7 +616,7 @@ public class ChargeNetwork implements Charge.INetwork {
          */
         public boolean useCharge(double amount) {
             if (hasCapacity(amount)) {
-                removeCharge(activeBatteries().collect(Collectors.toList()), amount);
+                removeCharge(amount);
                 return true;
             }
             return false;
@@ -438,18 +641,31 @@ public class ChargeNetwork implements Charge.INetwork {
          * @return charge removed
          */
         public double removeCharge(double desiredAmount) {
-            return removeCharge(activeBatteries().collect(Collectors.toList()), desiredAmount);
+            return removeCharge(batteries.start(), batteries.end(), desiredAmount);
         }
 
         /**
-         * Remove up to the requested amount of charge and returns the amount
-         * removed.
+         * Remove up to the requested amount of charge from batteries in the given state
+         * and returns the amount removed.
          *
          * @return charge removed
          */
-        private double removeCharge(List<BatteryBlock> batteries, double desiredAmount) {
+        private double removeCharge(IBatteryBlock.State state, double desiredAmount) {
+            return removeCharge(batteries.start(state), batteries.end(state), desiredAmount);
+        }
+
+        /**
+         * Remove up to the requested amount of charge from the active batteries in the slot range
+         * and returns the amount removed.
+         *
+         * @return charge removed
+         */
+        private double removeCharge(int start, int end, double desiredAmount) {
             double amountNeeded = desiredAmount;
-            for (BatteryBlock battery : batteries) {
+            for (int i = start; i < end; i++) {
+                if (!batteries.isActive(i))
+                    continue;
+                BatteryBlock battery = batteries.get(i);
                 amountNeeded -= battery.removeCharge(amountNeeded);
                 batterySaveData.updateBatteryRecord(battery);
                 if (amountNeeded <= 0.0)
@@ -466,6 +682,21 @@ public class ChargeNetwork implements Charge.INetwork {
         }
     }
 
+    private static class Component {
+        private final Set<ChargeNode> nodes = new HashSet<>();
+        private final Deque<ChargeNode> frontier = new ArrayDeque<>();
+        private boolean absorbed;
+
+        private Component(ChargeNode start) {
+            add(start);
+        }
+
+        private void add(ChargeNode node) {
+            nodes.add(node);
+            frontier.add(node);
+        }
+    }
+
     private class NullGrid extends ChargeGrid {
         @Override
         protected Set<ChargeNode> delegate() {
@@ -574,6 +805,7 @@ public class ChargeNetwork implements Charge.INetwork {
         public boolean useCharge(double amount) {
             boolean removed = chargeGrid.useCharge(amount);
             if (removed) {
+                activeSections.put(sectionKey(pos), clock);
                 listeners.forEach(c -> c.accept(this, amount));
                 usageRecorder.ifPresent(r -> r.useCharge(amount));
             }
@@ -597,6 +829,10 @@ public class ChargeNetwork implements Charge.INetwork {
         }
 
         protected void constructGrid() {
+            if (RailcraftConfig.chargeIncrementalGrids()) {
+                joinGrids();
+                return;
+            }
             Set<ChargeNode> visitedNodes = new HashSet<>();
             visitedNodes.add(this);
             Set<ChargeNode> nullNodes = new HashSet<>();
@@ -633,6 +869,48 @@ public class ChargeNetwork implements Charge.INetwork {
             }
         }
 
+        /**
+         * Connects this node to the grids around it.
+         *
+         * Only nodes without a grid are explored, the largest adjacent grid is kept and
+         * the other adjacent grids are merged into it, so the cost is the size of the smaller grids.
+         */
+        private void joinGrids() {
+            Set<ChargeNode> nullNodes = new LinkedHashSet<>();
+            nullNodes.add(this);
+            Set<ChargeGrid> adjacentGrids = Collections.newSetFromMap(new IdentityHashMap<>());
+            if (chargeGrid.isActive())
+                adjacentGrids.add(chargeGrid);
+            Deque<ChargeNode> nodeQueue = new ArrayDeque<>();
+            nodeQueue.add(this);
+            ChargeNode nextNode;
+            while ((nextNode = nodeQueue.poll()) != null) {
+                nextNode.forConnections(n -> {
+                    if (!n.isGridNull())
+                        adjacentGrids.add(n.chargeGrid);
+                    else if (nullNodes.add(n))
+                        nodeQueue.addLast(n);
+                });
+            }
+            ChargeGrid target = adjacentGrids.stream().max(Comparator.comparingInt(ForwardingCollection::size)).orElse(null);
+            if (target == null) {
+                if (nullNodes.size() <= 1)
+                    return;
+                target = new ChargeGrid();
+                grids.add(target);
+            }
+            int visited = nullNodes.size();
+            target.addAll(nullNodes);
+            for (ChargeGrid grid : adjacentGrids) {
+                if (grid != target) {
+                    visited += grid.size();
+                    target.addAll(grid);
+                    grid.destroy(false);
+                }
+            }
+            recordGridEdit("join", pos, visited);
+        }
+
         @Override
         public void zap(Entity entity, Charge.DamageOrigin origin, float damage) {
             if (Game.isClient(entity.world))
@@ -10,6 +10,8 @@
 package mods.railcraft.common.util.collections;
 
 import com.google.common.collect.ForwardingMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import mods.railcraft.common.util.inventory.InvTools;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
@@ -21,23 +23,32 @@ import java.util.Map;
 import java.util.function.Predicate;
 
 /**
+ * A map of items, with or without metadata, to values.
+ *
+ * Next to the map itself entries are kept in a table keyed by item identity and then metadata, so
+ * the lookups by item and stack don't allocate keys. Numeric item ids are not used, they are
+ * remapped when a world is loaded or a server joined. The map views are read only, changes have to
+ * go through the map so the table stays in step.
+ *
  * @author CovertJaguar <http://www.railcraft.info/>
  */
 public class ItemMap<V> extends ForwardingMap<ItemKey, V> {
     @SuppressWarnings("rawtypes")
-    private static ItemMap EMPTY = new ItemMap() {
-        @Override
-        protected Map delegate() {
-            return Collections.emptyMap();
-        }
-    };
+    private static final ItemMap EMPTY = new ItemMap();
 
     @SuppressWarnings("unchecked")
     public static <V> ItemMap<V> emptyMap() {
         return (ItemMap<V>) EMPTY;
     }
 
-    private Map<ItemKey, V> delegate = new HashMap<>();
+    private final Map<ItemKey, V> map = new HashMap<>();
+    private final Map<ItemKey, V> view = Collections.unmodifiableMap(map);
+    private final Reference2ObjectOpenHashMap<Item, Int2ObjectOpenHashMap<V>> index = new Reference2ObjectOpenHashMap<>();
+
+    private void checkMutable() {
+        if (this == EMPTY)
+            throw new UnsupportedOperationException();
+    }
 
     public V put(Item item, int meta, V value) {
         return put(new ItemKey(item, meta), value);
@@ -47,20 +58,58 @@ public class ItemMap<V> extends ForwardingMap<ItemKey, V> {
         return put(new ItemKey(item), value);
     }
 
+    @Override
+    public V put(ItemKey key, V value) {
+        checkMutable();
+        index.computeIfAbsent(key.item, k -> new Int2ObjectOpenHashMap<>()).put(key.metadata, value);
+        return map.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends ItemKey, ? extends V> entries) {
+        entries.forEach(this::put);
+    }
+
+    @Override
+    public V remove(Object key) {
+        checkMutable();
+        if (key instanceof ItemKey) {
+            ItemKey itemKey = (ItemKey) key;
+            Int2ObjectOpenHashMap<V> metas = index.get(itemKey.item);
+            if (metas != null) {
+                metas.remove(itemKey.metadata);
+                if (metas.isEmpty())
+                    index.remove(itemKey.item);
+            }
+        }
+        return map.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        index.clear();
+        map.clear();
+    }
+
     public V get(Item item) {
-        return get(new ItemKey(item));
+        Int2ObjectOpenHashMap<V> metas = index.get(item);
+        return metas == null ? null : metas.get(-1);
     }
 
     public V get(Item item, int meta) {
-        V value = get(new ItemKey(item, meta));
+        Int2ObjectOpenHashMap<V> metas = index.get(item);
+        if (metas == null)
+            return null;
+        V value = metas.get(meta);
         if (value != null)
             return value;
-        return get(new ItemKey(item));
+        return metas.get(-1);
     }
 
     @Override
     protected Map<ItemKey, V> delegate() {
-        return delegate;
+        return view;
     }
 
     public V get(ItemStack stack) {
@@ -68,7 +117,8 @@ public class ItemMap<V> extends ForwardingMap<ItemKey, V> {
     }
 
     public boolean containsKey(Item item, int meta) {
-        return containsKey(new ItemKey(item, meta)) || containsKey(new ItemKey(item));
+        Int2ObjectOpenHashMap<V> metas = index.get(item);
+        return metas != null && (metas.containsKey(meta) || metas.containsKey(-1));
     }
 
     public boolean containsKey(@Nullable ItemStack stack) {
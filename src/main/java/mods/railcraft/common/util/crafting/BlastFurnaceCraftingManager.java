@@ -30,8 +30,10 @@ import java.util.List;
 public final class BlastFurnaceCraftingManager implements IBlastFurnaceCraftingManager {
 
     private static final BlastFurnaceCraftingManager INSTANCE = new BlastFurnaceCraftingManager();
-    private final List<IBlastFurnaceRecipe> recipes = new ArrayList<>();
-    private final List<IBlastFurnaceFuel> fuels = new ArrayList<>();
+    private final RecipeIndex<IBlastFurnaceRecipe> recipeIndex = new RecipeIndex<>(IBlastFurnaceRecipe::getInput);
+    private final RecipeIndex<IBlastFurnaceFuel> fuelIndex = new RecipeIndex<>(IBlastFurnaceFuel::getInput);
+    private final List<IBlastFurnaceRecipe> recipes = recipeIndex.getRecipes();
+    private final List<IBlastFurnaceFuel> fuels = fuelIndex.getRecipes();
 
     public static BlastFurnaceCraftingManager getInstance() {
         return INSTANCE;
@@ -120,18 +122,12 @@ public final class BlastFurnaceCraftingManager implements IBlastFurnaceCraftingM
 
     @Override
     public int getCookTime(ItemStack stack) {
-        return fuels.stream()
-                .filter(fuel -> fuel.getInput().test(stack))
-                .findFirst()
-                .map(IBlastFurnaceFuel::getCookTime)
-                .orElse(0);
+        IBlastFurnaceFuel fuel = fuelIndex.find(stack);
+        return fuel == null ? 0 : fuel.getCookTime();
     }
 
     @Override
     public @Nullable IBlastFurnaceRecipe getRecipe(ItemStack stack) {
-        return recipes.stream()
-                .filter(recipe -> recipe.getInput().test(stack))
-                .findFirst()
-                .orElse(null);
+        return recipeIndex.find(stack);
     }
 }
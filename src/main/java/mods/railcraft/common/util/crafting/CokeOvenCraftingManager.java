@@ -19,13 +19,13 @@ import net.minecraftforge.fluids.FluidStack;
 import org.apache.logging.log4j.Level;
 
 import org.jetbrains.annotations.Nullable;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 public final class CokeOvenCraftingManager implements ICokeOvenCraftingManager {
 
-    private final List<ICokeOvenRecipe> recipes = new ArrayList<>();
+    private final RecipeIndex<ICokeOvenRecipe> index = new RecipeIndex<>(ICokeOvenRecipe::getInput);
+    private final List<ICokeOvenRecipe> recipes = index.getRecipes();
 
     private static final CokeOvenCraftingManager INSTANCE = new CokeOvenCraftingManager();
 
@@ -79,12 +79,7 @@ public final class CokeOvenCraftingManager implements ICokeOvenCraftingManager {
     @Override
     @Nullable
     public ICokeOvenRecipe getRecipe(ItemStack input) {
-        for (ICokeOvenRecipe r : recipes) {
-            if (r.getInput().test(input)) {
-                return r;
-            }
-        }
-        return null;
+        return index.find(input);
     }
 
 }
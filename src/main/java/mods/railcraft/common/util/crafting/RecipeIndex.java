@@ -0,0 +1,277 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.util.crafting;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import mods.railcraft.common.util.inventory.InvTools;
+import mods.railcraft.common.util.misc.Game;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.relauncher.ReflectionHelper;
+import net.minecraftforge.oredict.OreDictionary;
+import net.minecraftforge.oredict.OreIngredient;
+import org.apache.logging.log4j.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A recipe list that finds the first recipe accepting a stack without testing every recipe.
+ *
+ * The index is built on the first lookup after the list changed, which in practice is once
+ * registration is over. Plain and ore dictionary ingredients are bucketed by the item and metadata
+ * of the stacks they accept. Any other ingredient may look at NBT or capabilities, so it is kept in
+ * a fallback list that is tested on every lookup. Candidates are still tested against the stack and
+ * the earliest registered match wins, so the results are the same as a linear search.
+ */
+public final class RecipeIndex<R> {
+    private static final int WILDCARD = OreDictionary.WILDCARD_VALUE;
+    private static @Nullable Field ingredientStacks;
+    private static @Nullable Field oreIngredientOres;
+    static int oreVersion;
+
+    static {
+        try {
+            ingredientStacks = ReflectionHelper.findField(Ingredient.class, "matchingStacks", "field_193371_b");
+        } catch (Exception ex) {
+            Game.log(Level.WARN, "Could not access ingredient contents, plain recipes will not be indexed");
+        }
+        try {
+            oreIngredientOres = ReflectionHelper.findField(OreIngredient.class, "ores");
+        } catch (Exception ex) {
+            Game.log(Level.WARN, "Could not access ore ingredient contents, ore recipes will not be indexed");
+        }
+    }
+
+    private final RecipeList<R> recipes = new RecipeList<>();
+    private final Function<R, Ingredient> ingredient;
+    private final Map<Item, Int2ObjectOpenHashMap<List<Entry<R>>>> buckets = new HashMap<>();
+    private final List<Entry<R>> fallback = new ArrayList<>();
+    private final Map<Item, IntOpenHashSet> misses = new HashMap<>();
+    private int builtVersion = -1;
+    private int builtOreVersion = -1;
+
+    public RecipeIndex(Function<R, Ingredient> ingredient) {
+        this.ingredient = ingredient;
+    }
+
+    /**
+     * The backing list, changes to it are picked up on the next lookup.
+     */
+    public List<R> getRecipes() {
+        return recipes;
+    }
+
+    public synchronized @Nullable R find(ItemStack stack) {
+        if (InvTools.isEmpty(stack))
+            return null;
+        if (builtVersion != recipes.version || builtOreVersion != oreVersion)
+            rebuild();
+
+        if (fallback.isEmpty()) {
+            IntOpenHashSet missedMetas = misses.get(stack.getItem());
+            if (missedMetas != null && missedMetas.contains(stack.getMetadata()))
+                return null;
+        }
+
+        Entry<R> best = null;
+        Int2ObjectOpenHashMap<List<Entry<R>>> metas = buckets.get(stack.getItem());
+        if (metas != null) {
+            best = first(metas.get(stack.getMetadata()), stack, null);
+            best = first(metas.get(WILDCARD), stack, best);
+        }
+        best = first(fallback, stack, best);
+
+        if (best == null) {
+            if (fallback.isEmpty())
+                misses.computeIfAbsent(stack.getItem(), k -> new IntOpenHashSet()).add(stack.getMetadata());
+            return null;
+        }
+        return best.recipe;
+    }
+
+    /**
+     * Returns the earliest entry accepting the stack, entries of a bucket are in registration order.
+     */
+    private @Nullable Entry<R> first(@Nullable List<Entry<R>> entries, ItemStack stack, @Nullable Entry<R> best) {
+        if (entries == null)
+            return best;
+        for (Entry<R> entry : entries) {
+            if (best != null && entry.order > best.order)
+                break;
+            if (entry.ingredient.test(stack))
+                return entry;
+        }
+        return best;
+    }
+
+    private void rebuild() {
+        buckets.clear();
+        fallback.clear();
+        misses.clear();
+        for (int i = 0; i < recipes.size(); i++) {
+            R recipe = recipes.get(i);
+            Ingredient input = ingredient.apply(recipe);
+            Entry<R> entry = new Entry<>(i, recipe, input);
+            List<ItemStack> stacks = getIndexedStacks(input);
+            if (stacks == null) {
+                fallback.add(entry);
+                continue;
+            }
+            Set<List<Entry<R>>> added = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (ItemStack stack : stacks) {
+                if (stack.isEmpty())
+                    continue;
+                List<Entry<R>> bucket = buckets.computeIfAbsent(stack.getItem(), k -> new Int2ObjectOpenHashMap<>())
+                        .computeIfAbsent(stack.getMetadata(), k -> new ArrayList<>());
+                if (added.add(bucket))
+                    bucket.add(entry);
+            }
+        }
+        builtVersion = recipes.version;
+        builtOreVersion = oreVersion;
+    }
+
+    /**
+     * Returns the stacks that decide what the ingredient accepts, or null if it can't be bucketed.
+     *
+     * These are the stacks the ingredient was made from, wildcard metadata included. The matching
+     * stacks it hands out have wildcards replaced by the sub items, which can miss damaged items.
+     */
+    @SuppressWarnings("unchecked")
+    static @Nullable List<ItemStack> getIndexedStacks(Ingredient input) {
+        if (input.getClass() == Ingredient.class && ingredientStacks != null) {
+            try {
+                return Arrays.asList((ItemStack[]) ingredientStacks.get(input));
+            } catch (IllegalAccessException ignored) {
+            }
+        }
+        if (input.getClass() == OreIngredient.class && oreIngredientOres != null) {
+            try {
+                return (List<ItemStack>) oreIngredientOres.get(input);
+            } catch (IllegalAccessException ignored) {
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ore dictionary ingredients follow the ore dictionary, so every index is rebuilt when it changes.
+     */
+    @SubscribeEvent
+    public static void onOreRegister(OreDictionary.OreRegisterEvent event) {
+        oreVersion++;
+    }
+
+    private static final class Entry<R> {
+        private final int order;
+        private final R recipe;
+        private final Ingredient ingredient;
+
+        private Entry(int order, R recipe, Ingredient ingredient) {
+            this.order = order;
+            this.recipe = recipe;
+            this.ingredient = ingredient;
+        }
+    }
+
+    static final class RecipeList<R> extends ArrayList<R> {
+        int version;
+
+        @Override
+        public R set(int index, R element) {
+            version++;
+            return super.set(index, element);
+        }
+
+        @Override
+        public boolean add(R r) {
+            version++;
+            return super.add(r);
+        }
+
+        @Override
+        public void add(int index, R element) {
+            version++;
+            super.add(index, element);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends R> c) {
+            version++;
+            return super.addAll(c);
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends R> c) {
+            version++;
+            return super.addAll(index, c);
+        }
+
+        @Override
+        public R remove(int index) {
+            version++;
+            return super.remove(index);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            version++;
+            return super.remove(o);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            version++;
+            return super.removeAll(c);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            version++;
+            return super.retainAll(c);
+        }
+
+        @Override
+        public boolean removeIf(java.util.function.Predicate<? super R> filter) {
+            version++;
+            return super.removeIf(filter);
+        }
+
+        @Override
+        public void replaceAll(java.util.function.UnaryOperator<R> operator) {
+            version++;
+            super.replaceAll(operator);
+        }
+
+        @Override
+        public void sort(@Nullable Comparator<? super R> c) {
+            version++;
+            super.sort(c);
+        }
+
+        @Override
+        public void clear() {
+            version++;
+            super.clear();
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            version++;
+            super.removeRange(fromIndex, toIndex);
+        }
+    }
+}
@@ -13,7 +13,6 @@ import mods.railcraft.api.crafting.ICrusherCraftingManager;
 import mods.railcraft.api.crafting.ICrusherRecipe;
 import mods.railcraft.api.crafting.IGenRule;
 import mods.railcraft.api.crafting.IOutputEntry;
-import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.misc.Game;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.Ingredient;
@@ -32,7 +31,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 public final class RockCrusherCraftingManager implements ICrusherCraftingManager {
 
-    private final List<ICrusherRecipe> recipes = new ArrayList<>();
+    private final RecipeIndex<ICrusherRecipe> index = new RecipeIndex<>(ICrusherRecipe::getInput);
+    private final List<ICrusherRecipe> recipes = index.getRecipes();
     public static final ICrusherRecipe NULL_RECIPE = new CrusherRecipe(Ingredient.EMPTY);
     private static final RockCrusherCraftingManager INSTANCE = new RockCrusherCraftingManager();
 
@@ -56,14 +56,7 @@ public final class RockCrusherCraftingManager implements ICrusherCraftingManager
     @Nullable
     @Override
     public ICrusherRecipe getRecipe(ItemStack input) {
-        if (InvTools.isEmpty(input)) {
-            return null;
-        }
-        for (ICrusherRecipe r : recipes) {
-            if (r.getInput().apply(input))
-                return r;
-        }
-        return null;
+        return index.find(input);
     }
 
     @Override
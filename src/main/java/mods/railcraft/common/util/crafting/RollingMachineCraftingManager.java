@@ -18,6 +18,7 @@ import mods.railcraft.common.util.misc.Game;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.Container;
 import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.item.crafting.Ingredient;
@@ -37,7 +38,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public final class RollingMachineCraftingManager implements IRollingMachineCraftingManager {
 
-    private final List<IRollingMachineRecipe> recipes = new ArrayList<>();
+    private final RecipeIndex.RecipeList<IRollingMachineRecipe> recipes = new RecipeIndex.RecipeList<>();
+    private final RollingRecipeIndex index = new RollingRecipeIndex(recipes);
     private static final RollingMachineCraftingManager INSTANCE = new RollingMachineCraftingManager();
     private static final InventoryCrafting EMPTY_CRAFTING_INVENTORY = new InventoryCrafting(new Container() {
         @Override
@@ -46,7 +48,7 @@ public final class RollingMachineCraftingManager implements IRollingMachineCraft
         }
     }, 3, 3);
 
-    public static IRollingMachineCraftingManager getInstance() {
+    public static RollingMachineCraftingManager getInstance() {
         return INSTANCE;
     }
 
@@ -64,13 +66,20 @@ public final class RollingMachineCraftingManager implements IRollingMachineCraft
     }
 
     @Override
-    public IRollingMachineRecipe findMatching(InventoryCrafting inventoryCrafting) {
-        for (IRollingMachineRecipe recipe : recipes) {
-            if (recipe.test(inventoryCrafting)) {
-                return recipe;
-            }
-        }
-        return null;
+    public synchronized @Nullable IRollingMachineRecipe findMatching(InventoryCrafting inventoryCrafting) {
+        return index.find(inventoryCrafting);
+    }
+
+    /**
+     * Like {@link #findMatching(InventoryCrafting)}, but first retests the recipe the machine matched last
+     * if the grid holds the same items in the same slots as it did then.
+     */
+    public synchronized @Nullable IRollingMachineRecipe findMatching(InventoryCrafting inventoryCrafting, LastMatch last) {
+        if (last.holds(inventoryCrafting, index.getVersion()))
+            return last.recipe;
+        IRollingMachineRecipe recipe = index.find(inventoryCrafting);
+        last.set(inventoryCrafting, index.getVersion(), recipe);
+        return recipe;
     }
 
     @Override
@@ -149,6 +158,35 @@ public final class RollingMachineCraftingManager implements IRollingMachineCraft
         addRecipe(recipe);
     }
 
+    /**
+     * The last recipe a machine matched and the grid it matched against.
+     */
+    public static final class LastMatch {
+        private @Nullable IRollingMachineRecipe recipe;
+        private final Item[] items = new Item[RollingRecipeIndex.SIZE * RollingRecipeIndex.SIZE];
+        private int version = -1;
+
+        private boolean holds(InventoryCrafting inv, int version) {
+            if (recipe == null || this.version != version || inv.getSizeInventory() != items.length)
+                return false;
+            for (int slot = 0; slot < items.length; slot++) {
+                ItemStack stack = inv.getStackInSlot(slot);
+                if (items[slot] != (stack.isEmpty() ? null : stack.getItem()))
+                    return false;
+            }
+            return recipe.test(inv);
+        }
+
+        private void set(InventoryCrafting inv, int version, @Nullable IRollingMachineRecipe recipe) {
+            this.recipe = inv.getSizeInventory() == items.length ? recipe : null;
+            this.version = version;
+            for (int slot = 0; slot < items.length && slot < inv.getSizeInventory(); slot++) {
+                ItemStack stack = inv.getStackInSlot(slot);
+                items[slot] = stack.isEmpty() ? null : stack.getItem();
+            }
+        }
+    }
+
     private static abstract class RecipeBuilderImpl<S extends RecipeBuilder<S>> implements RecipeBuilder<S> {
         List<Ingredient> ingredients;
         ItemStack output;
@@ -0,0 +1,194 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.util.crafting;
+
+import mods.railcraft.api.crafting.IRollingMachineRecipe;
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.Ingredient;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Narrows down the rolling machine recipes that can match a 3x3 grid before testing them.
+ *
+ * Each of our own recipe types knows which slots it needs filled, for shaped recipes that is every
+ * placement of its pattern, for shapeless ones any set of slots of the right size. Recipes are
+ * bucketed by those slot masks, and each bucket keeps the items the recipe can accept, so a grid
+ * holding an item no ingredient takes is skipped. Recipes of other types, or with ingredients that
+ * may or may not be empty, are put in every bucket and always tested.
+ */
+final class RollingRecipeIndex {
+    static final int SIZE = 3;
+    private static final int MASKS = 1 << (SIZE * SIZE);
+
+    private final RecipeIndex.RecipeList<IRollingMachineRecipe> recipes;
+    private final List<List<Candidate>> byMask = new ArrayList<>(MASKS);
+    private int builtVersion = -1;
+    private int builtOreVersion = -1;
+
+    RollingRecipeIndex(RecipeIndex.RecipeList<IRollingMachineRecipe> recipes) {
+        this.recipes = recipes;
+    }
+
+    /**
+     * A version that changes whenever the results of a lookup might.
+     */
+    int getVersion() {
+        return recipes.version * 31 + RecipeIndex.oreVersion;
+    }
+
+    /**
+     * Returns the slots of the grid holding something.
+     */
+    static int getMask(InventoryCrafting inv) {
+        int mask = 0;
+        for (int slot = 0; slot < inv.getSizeInventory(); slot++) {
+            if (!inv.getStackInSlot(slot).isEmpty())
+                mask |= 1 << slot;
+        }
+        return mask;
+    }
+
+    @Nullable IRollingMachineRecipe find(InventoryCrafting inv) {
+        if (inv.getWidth() != SIZE || inv.getHeight() != SIZE) {
+            for (IRollingMachineRecipe recipe : recipes) {
+                if (recipe.test(inv))
+                    return recipe;
+            }
+            return null;
+        }
+        if (builtVersion != recipes.version || builtOreVersion != RecipeIndex.oreVersion)
+            rebuild();
+        for (Candidate candidate : byMask.get(getMask(inv))) {
+            if (candidate.accepts(inv) && candidate.recipe.test(inv))
+                return candidate.recipe;
+        }
+        return null;
+    }
+
+    private void rebuild() {
+        byMask.clear();
+        for (int mask = 0; mask < MASKS; mask++) {
+            byMask.add(new ArrayList<>());
+        }
+        for (IRollingMachineRecipe recipe : recipes) {
+            Candidate candidate = new Candidate(recipe, getItems(recipe));
+            BitSet masks = getMasks(recipe);
+            if (masks == null)
+                byMask.forEach(list -> list.add(candidate));
+            else
+                masks.stream().forEach(mask -> byMask.get(mask).add(candidate));
+        }
+        builtVersion = recipes.version;
+        builtOreVersion = RecipeIndex.oreVersion;
+    }
+
+    /**
+     * Returns the slot masks the recipe can match, or null if it can't tell.
+     */
+    private static @Nullable BitSet getMasks(IRollingMachineRecipe recipe) {
+        BitSet masks = new BitSet(MASKS);
+        if (recipe instanceof ShapelessRollingMachineRecipe) {
+            List<Ingredient> ingredients = ((ShapelessRollingMachineRecipe) recipe).getIngredients();
+            for (Ingredient ingredient : ingredients) {
+                if (ingredient.apply(ItemStack.EMPTY))
+                    return null;
+            }
+            for (int mask = 1; mask < MASKS; mask++) {
+                if (Integer.bitCount(mask) == ingredients.size())
+                    masks.set(mask);
+            }
+            return masks;
+        }
+        if (recipe instanceof ShapedRollingMachineRecipe) {
+            ShapedRollingMachineRecipe shaped = (ShapedRollingMachineRecipe) recipe;
+            List<Ingredient> ingredients = shaped.getIngredients();
+            int width = shaped.getWidth();
+            int height = shaped.getHeight();
+            for (Ingredient ingredient : ingredients) {
+                if (ingredient != Ingredient.EMPTY && ingredient.apply(ItemStack.EMPTY))
+                    return null;
+            }
+            for (int x = 0; x <= SIZE - width; x++) {
+                for (int y = 0; y <= SIZE - height; y++) {
+                    masks.set(getMask(ingredients, width, height, x, y, false));
+                    if (shaped.allowsFlip())
+                        masks.set(getMask(ingredients, width, height, x, y, true));
+                }
+            }
+            return masks;
+        }
+        return null;
+    }
+
+    private static int getMask(List<Ingredient> ingredients, int width, int height, int xStart, int yStart, boolean flipped) {
+        int mask = 0;
+        for (int k = 0; k < width; k++) {
+            for (int l = 0; l < height; l++) {
+                Ingredient ingredient = ingredients.get((flipped ? width - k - 1 : k) + l * width);
+                if (ingredient != Ingredient.EMPTY)
+                    mask |= 1 << (xStart + k + (yStart + l) * SIZE);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns every item the recipe's ingredients accept, or null if some ingredient can't be listed.
+     *
+     * Only the items are kept, so a wildcard stack lets its item through whatever the metadata.
+     */
+    private static @Nullable Set<Item> getItems(IRollingMachineRecipe recipe) {
+        List<Ingredient> ingredients;
+        if (recipe instanceof ShapelessRollingMachineRecipe)
+            ingredients = ((ShapelessRollingMachineRecipe) recipe).getIngredients();
+        else if (recipe instanceof ShapedRollingMachineRecipe)
+            ingredients = ((ShapedRollingMachineRecipe) recipe).getIngredients();
+        else
+            return null;
+        Set<Item> items = new HashSet<>();
+        for (Ingredient ingredient : ingredients) {
+            if (ingredient == Ingredient.EMPTY)
+                continue;
+            List<ItemStack> stacks = RecipeIndex.getIndexedStacks(ingredient);
+            if (stacks == null)
+                return null;
+            for (ItemStack stack : stacks) {
+                if (!stack.isEmpty())
+                    items.add(stack.getItem());
+            }
+        }
+        return items;
+    }
+
+    private static final class Candidate {
+        private final IRollingMachineRecipe recipe;
+        private final @Nullable Set<Item> items;
+
+        private Candidate(IRollingMachineRecipe recipe, @Nullable Set<Item> items) {
+            this.recipe = recipe;
+            this.items = items;
+        }
+
+        private boolean accepts(InventoryCrafting inv) {
+            if (items == null)
+                return true;
+            for (int slot = 0; slot < inv.getSizeInventory(); slot++) {
+                ItemStack stack = inv.getStackInSlot(slot);
+                if (!stack.isEmpty() && !items.contains(stack.getItem()))
+                    return false;
+            }
+            return true;
+        }
+    }
+}
@@ -82,6 +82,14 @@ public final class ShapedRollingMachineRecipe implements IRollingMachineRecipe {
         return width;
     }
 
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean allowsFlip() {
+        return allowFlip;
+    }
+
     public List<Ingredient> getIngredients() {
         return ingredients;
     }
@@ -545,6 +545,27 @@ public abstract class InvTools {
         return emptyStack();
     }
 
+    /**
+     * Attempts to move up to maxAmount items of a single kind from one inventory to another.
+     *
+     * @param source    the source inventory
+     * @param dest      the destination inventory
+     * @param filter    Predicate to match against
+     * @param maxAmount the most items to move
+     * @return an empty stack if nothing was moved, the stack moved otherwise
+     */
+    public static ItemStack moveItems(IInventoryComposite source, IInventoryComposite dest, Predicate<ItemStack> filter, int maxAmount) {
+        for (IInventoryObject src : source) {
+            for (IInventoryObject dst : dest) {
+                InventoryManipulator<?> imSource = InventoryManipulator.get(src);
+                ItemStack moved = imSource.moveItems(dst, filter, maxAmount);
+                if (!isEmpty(moved))
+                    return moved;
+            }
+        }
+        return emptyStack();
+    }
+
     /**
      * Attempts to move a single item from one inventory to another.
      * <p/>
@@ -36,6 +36,16 @@ public interface IInvSlot {
 
     ItemStack decreaseStack();
 
+    /**
+     * Removes up to the given number of items from the slot.
+     */
+    ItemStack decreaseStack(int amount);
+
+    /**
+     * Returns what {@link #decreaseStack(int)} would remove, without removing it.
+     */
+    ItemStack simulateDecreaseStack(int amount);
+
     /**
      * It is not legal to edit the stack returned from this function.
      */
@@ -81,6 +81,16 @@ public class ItemHandlerInventoryIterator extends InventoryIterator<IInvSlot> {
             return inv.extractItem(slot, 1, false);
         }
 
+        @Override
+        public ItemStack decreaseStack(int amount) {
+            return inv.extractItem(slot, amount, false);
+        }
+
+        @Override
+        public ItemStack simulateDecreaseStack(int amount) {
+            return InvTools.makeSafe(inv.extractItem(slot, amount, true));
+        }
+
         @Override
         public ItemStack getStack() {
             return InvTools.makeSafe(inv.getStackInSlot(slot));
@@ -91,6 +91,19 @@ public class StandardInventoryIterator extends InventoryIterator<IExtInvSlot> {
             return inv.decrStackSize(slot, 1);
         }
 
+        @Override
+        public ItemStack decreaseStack(int amount) {
+            return inv.decrStackSize(slot, amount);
+        }
+
+        @Override
+        public ItemStack simulateDecreaseStack(int amount) {
+            ItemStack stack = InvTools.copy(getStack());
+            if (InvTools.isEmpty(stack))
+                return InvTools.emptyStack();
+            return InvTools.setSize(stack, Math.min(amount, InvTools.sizeOf(stack)));
+        }
+
         @Override
         public int getIndex() {
             return slot;
@@ -131,4 +131,30 @@ public abstract class InventoryManipulator<T extends IInvSlot> implements Iterab
         return emptyStack();
     }
 
+    /**
+     * Moves up to maxAmount items matching the filter out of the first slot holding any the destination accepts.
+     * The items are added to the destination first and only as many as it took are removed from the slot.
+     *
+     * @return the stack moved, empty if nothing was moved
+     */
+    public ItemStack moveItems(IInventoryObject dest, Predicate<ItemStack> filter, int maxAmount) {
+        InventoryManipulator<?> imDest = InventoryManipulator.get(dest);
+        for (IInvSlot slot : this) {
+            ItemStack stack = slot.getStack();
+            if (!isEmpty(stack) && slot.canTakeStackFromSlot(stack) && filter.test(stack)) {
+                stack = slot.simulateDecreaseStack(maxAmount);
+                if (isEmpty(stack))
+                    continue;
+                ItemStack remainder = imDest.addStack(stack);
+                int amount = sizeOf(stack) - sizeOf(remainder);
+                if (amount <= 0)
+                    continue;
+                ItemStack moved = slot.decreaseStack(amount);
+                if (!isEmpty(moved))
+                    return moved;
+            }
+        }
+        return emptyStack();
+    }
+
 }
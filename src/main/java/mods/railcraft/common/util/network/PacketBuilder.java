@@ -16,6 +16,7 @@ import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import mods.railcraft.api.signals.AbstractPair;
 import mods.railcraft.api.signals.ISignalPacketBuilder;
+import mods.railcraft.common.blocks.RailcraftTileEntity;
 import mods.railcraft.common.carts.EntityCartJukebox;
 import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.gui.widgets.Widget;
@@ -54,7 +55,9 @@ public final class PacketBuilder implements ISignalPacketBuilder {
     }
 
     public void sendTileEntityPacket(TileEntity tile) {
-        if (tile.getWorld() instanceof WorldServer) {
+        if (tile instanceof RailcraftTileEntity) {
+            TileSyncManager.INSTANCE.queue((RailcraftTileEntity) tile);
+        } else if (tile.getWorld() instanceof WorldServer) {
             WorldServer world = (WorldServer) tile.getWorld();
             SPacketUpdateTileEntity packet = tile.getUpdatePacket();
             if (packet != null)
@@ -65,6 +65,9 @@ public class PacketHandler {
 //            System.out.println("Packet Received: " + packetID);
             PacketType type = packetTypes[packetID];
             switch (type) {
+                case TILE_ENTITY:
+                    pkt = new PacketTileSync();
+                    break;
                 case GUI_RETURN:
                     pkt = new PacketGuiReturn(player);
                     break;
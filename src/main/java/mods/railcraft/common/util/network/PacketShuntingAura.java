@@ -9,56 +9,66 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.util.network;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import mods.railcraft.client.render.world.GoggleAuraWorldRenderer;
-import mods.railcraft.common.carts.LinkageManager;
-import mods.railcraft.common.carts.Train;
-import mods.railcraft.common.util.misc.Game;
-import net.minecraft.entity.item.EntityMinecart;
-import net.minecraft.world.World;
+import mods.railcraft.common.carts.ShuntingAuraTickHandler.CartInfo;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import java.io.IOException;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+/**
+ * An update to the shunting aura, see {@link mods.railcraft.common.carts.ShuntingAuraTickHandler}.
+ */
 public class PacketShuntingAura extends RailcraftPacket {
-    private Collection<EntityMinecart> carts;
+    private boolean reset;
+    private IntList removed = new IntArrayList();
+    private List<CartInfo> changed = Collections.emptyList();
 
     public PacketShuntingAura() {
     }
 
-    public PacketShuntingAura(Collection<EntityMinecart> carts) {
-        this.carts = carts;
+    public PacketShuntingAura(boolean reset, IntList removed, List<CartInfo> changed) {
+        this.reset = reset;
+        this.removed = removed;
+        this.changed = changed;
     }
 
     @Override
     public void writeData(RailcraftOutputStream data) throws IOException {
-        data.writeInt(carts.size());
-        for (EntityMinecart cart : carts) {
-            data.writeUUID(cart.getPersistentID());
-            data.writeUUID(Train.getTrainUUID(cart));
-            LinkageManager lm = LinkageManager.INSTANCE;
-            data.writeUUID(lm.getLinkA(cart));
-            data.writeUUID(lm.getLinkB(cart));
+        data.writeBoolean(reset);
+        data.writeInt(removed.size());
+        for (int i = 0; i < removed.size(); i++) {
+            data.writeInt(removed.getInt(i));
+        }
+        data.writeInt(changed.size());
+        for (CartInfo info : changed) {
+            data.writeInt(info.id);
+            data.writeInt(info.train);
+            data.writeInt(info.linkA);
+            data.writeInt(info.linkB);
         }
     }
 
     @Override
     @SideOnly(Side.CLIENT)
     public void readData(RailcraftInputStream data) throws IOException {
-        World world = Game.getWorld();
-        if (world == null)
-            return;
-        GoggleAuraWorldRenderer.INSTANCE.cartInfos.clear();
+        reset = data.readBoolean();
         int count = data.readInt();
+        removed = new IntArrayList(count);
+        for (int i = 0; i < count; i++) {
+            removed.add(data.readInt());
+        }
+        count = data.readInt();
+        changed = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
-            GoggleAuraWorldRenderer.INSTANCE.cartInfos.add(new GoggleAuraWorldRenderer.CartInfo(
-                    data.readUUID(),
-                    data.readUUID(),
-                    data.readUUID(),
-                    data.readUUID()
-            ));
+            changed.add(new CartInfo(data.readInt(), data.readInt(), data.readInt(), data.readInt()));
         }
+        GoggleAuraWorldRenderer.INSTANCE.update(reset, removed, changed);
     }
 
     @Override
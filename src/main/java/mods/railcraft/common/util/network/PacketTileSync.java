@@ -0,0 +1,78 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.util.network;
+
+import mods.railcraft.common.blocks.RailcraftTileEntity;
+import mods.railcraft.common.util.misc.Game;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Carries the sync data of several tiles of one chunk, see {@link TileSyncManager}.
+ */
+public class PacketTileSync extends RailcraftPacket {
+    private List<Entry> entries = Collections.emptyList();
+
+    public PacketTileSync() {
+    }
+
+    public PacketTileSync(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    @Override
+    public void writeData(RailcraftOutputStream data) throws IOException {
+        data.writeInt(entries.size());
+        for (Entry entry : entries) {
+            data.writeBlockPos(entry.pos);
+            data.writeInt(entry.payload.length);
+            data.write(entry.payload);
+        }
+    }
+
+    @Override
+    @SideOnly(Side.CLIENT)
+    public void readData(RailcraftInputStream data) throws IOException {
+        World world = Game.getWorld();
+        if (world == null)
+            return;
+        int count = data.readInt();
+        for (int i = 0; i < count; i++) {
+            BlockPos pos = data.readBlockPos();
+            byte[] payload = new byte[data.readInt()];
+            data.readFully(payload);
+            TileEntity tile = world.getTileEntity(pos);
+            if (tile instanceof RailcraftTileEntity)
+                ((RailcraftTileEntity) tile).readSyncData(payload);
+        }
+    }
+
+    @Override
+    public int getID() {
+        return PacketType.TILE_ENTITY.ordinal();
+    }
+
+    static final class Entry {
+        final BlockPos pos;
+        final byte[] payload;
+
+        Entry(BlockPos pos, byte[] payload) {
+            this.pos = pos;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.util.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The fields of a tile that are synced on their own, so a sync only carries the ones that changed.
+ *
+ * A tile declares its fields once from its constructor, on both sides and in the same order. Its
+ * sync data is then split into parts, part 0 is whatever writePacketData() writes and each field is
+ * a part of its own. A payload starts with a mask of the parts it carries, followed by those parts
+ * in order. Tiles without fields keep the plain format.
+ */
+public final class SyncedFields {
+    private final List<Field> fields = new ArrayList<>();
+
+    /**
+     * Declares a field, the reader must read exactly what the writer writes.
+     */
+    public void add(Writer writer, Reader reader) {
+        fields.add(new Field(writer, reader));
+    }
+
+    public boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    /**
+     * Encodes each part of the sync data on its own.
+     */
+    public byte[][] encode(Writer rest) throws IOException {
+        byte[][] parts = new byte[fields.size() + 1][];
+        parts[0] = write(rest);
+        for (int i = 0; i < fields.size(); i++) {
+            parts[i + 1] = write(fields.get(i).writer);
+        }
+        return parts;
+    }
+
+    /**
+     * Builds a payload holding the parts flagged in the mask.
+     */
+    public byte[] join(byte[][] parts, BitSet mask) throws IOException {
+        if (isEmpty())
+            return parts[0];
+        ByteBuf byteBuf = Unpooled.buffer();
+        try (ByteBufOutputStream out = new ByteBufOutputStream(byteBuf);
+             RailcraftOutputStream data = new RailcraftOutputStream(out)) {
+            data.writeBitSet(mask);
+            for (int part = mask.nextSetBit(0); part >= 0; part = mask.nextSetBit(part + 1)) {
+                data.write(parts[part]);
+            }
+        }
+        return toArray(byteBuf);
+    }
+
+    public void decode(byte[] payload, Reader rest) throws IOException {
+        try (ByteArrayInputStream in = new ByteArrayInputStream(payload);
+             RailcraftInputStream data = new RailcraftInputStream(in)) {
+            if (isEmpty()) {
+                rest.read(data);
+                return;
+            }
+            BitSet mask = data.readBitSet();
+            for (int part = mask.nextSetBit(0); part >= 0; part = mask.nextSetBit(part + 1)) {
+                if (part == 0)
+                    rest.read(data);
+                else if (part <= fields.size())
+                    fields.get(part - 1).reader.read(data);
+            }
+        }
+    }
+
+    /**
+     * Returns the parts that differ from the last ones sent, all of them if nothing was sent.
+     */
+    public static BitSet changed(byte[][] parts, @Nullable byte[][] last) {
+        BitSet mask = new BitSet(parts.length);
+        for (int part = 0; part < parts.length; part++) {
+            if (last == null || last.length != parts.length || !Arrays.equals(parts[part], last[part]))
+                mask.set(part);
+        }
+        return mask;
+    }
+
+    private static byte[] write(Writer writer) throws IOException {
+        ByteBuf byteBuf = Unpooled.buffer();
+        try (ByteBufOutputStream out = new ByteBufOutputStream(byteBuf);
+             RailcraftOutputStream data = new RailcraftOutputStream(out)) {
+            writer.write(data);
+        }
+        return toArray(byteBuf);
+    }
+
+    private static byte[] toArray(ByteBuf byteBuf) {
+        byte[] bytes = new byte[byteBuf.readableBytes()];
+        byteBuf.readBytes(bytes);
+        return bytes;
+    }
+
+    @FunctionalInterface
+    public interface Writer {
+        void write(RailcraftOutputStream data) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface Reader {
+        void read(RailcraftInputStream data) throws IOException;
+    }
+
+    private static final class Field {
+        private final Writer writer;
+        private final Reader reader;
+
+        private Field(Writer writer, Reader reader) {
+            this.writer = writer;
+            this.reader = reader;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.util.network;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import mods.railcraft.common.blocks.RailcraftTileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.ChunkWatchEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+
+import java.util.*;
+
+/**
+ * Collects the tiles that asked to be synced during a world tick and sends them at the end of it.
+ *
+ * The dirty tiles of a chunk go out together in a single {@link PacketTileSync} to the players
+ * watching that chunk. A tile whose payload is the same as the last one sent for it is left out,
+ * the watchers already have it. Payloads are remembered per tile object, so a tile replaced by a
+ * new one at the same position is always sent. When a player starts watching a chunk the payloads
+ * remembered for it are forgotten, so the next sync of each tile goes out again.
+ *
+ * Tiles that declare {@link SyncedFields} are compared part by part instead, and only the parts
+ * that changed are sent. The last sent parts stand in for what the watchers acknowledged, packets
+ * on the connection are reliable and ordered, and a new watcher gets a full snapshot.
+ */
+public enum TileSyncManager {
+    INSTANCE;
+    private final Map<World, WorldSync> worlds = new MapMaker().weakKeys().makeMap();
+    private final Map<Class<?>, Stats> stats = new HashMap<>();
+    private int batches;
+
+    /**
+     * Schedules the tile to be sent to the players watching it at the end of the tick.
+     */
+    public void queue(RailcraftTileEntity tile) {
+        if (tile.getWorld() instanceof WorldServer)
+            worlds.computeIfAbsent(tile.getWorld(), w -> new WorldSync()).dirty.add(tile);
+    }
+
+    @SubscribeEvent
+    public void tick(TickEvent.WorldTickEvent event) {
+        if (event.side == Side.SERVER && event.phase == TickEvent.Phase.END) {
+            WorldSync sync = worlds.get(event.world);
+            if (sync != null && !sync.dirty.isEmpty())
+                flush((WorldServer) event.world, sync);
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkWatch(ChunkWatchEvent.Watch event) {
+        WorldSync sync = worlds.get(event.getPlayer().world);
+        if (sync != null)
+            sync.sent.remove(ChunkPos.asLong(event.getChunk().x, event.getChunk().z));
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        WorldSync sync = worlds.get(event.getWorld());
+        if (sync != null)
+            sync.sent.remove(ChunkPos.asLong(event.getChunk().x, event.getChunk().z));
+    }
+
+    private void flush(WorldServer world, WorldSync sync) {
+        Long2ObjectOpenHashMap<List<PacketTileSync.Entry>> byChunk = new Long2ObjectOpenHashMap<>();
+        LongOpenHashSet pruned = new LongOpenHashSet();
+        for (RailcraftTileEntity tile : sync.dirty) {
+            if (tile.isInvalid() || tile.getWorld() != world)
+                continue;
+            BlockPos pos = tile.getPos();
+            long chunk = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+            byte[][] parts = tile.getSyncParts();
+            Stats tileStats = stats.computeIfAbsent(tile.getClass(), k -> new Stats());
+            Map<RailcraftTileEntity, byte[][]> sent = sync.sent.computeIfAbsent(chunk, k -> new HashMap<>());
+            if (pruned.add(chunk))
+                sent.keySet().removeIf(RailcraftTileEntity::isInvalid);
+            BitSet changed = SyncedFields.changed(parts, sent.put(tile, parts));
+            if (changed.isEmpty()) {
+                tileStats.skipped++;
+                continue;
+            }
+            if (changed.cardinality() < parts.length)
+                tileStats.deltas++;
+            byte[] payload = tile.getSyncData(parts, changed);
+            tileStats.sent++;
+            tileStats.bytes += payload.length;
+            byChunk.computeIfAbsent(chunk, k -> new ArrayList<>()).add(new PacketTileSync.Entry(pos, payload));
+        }
+        sync.dirty.clear();
+
+        byChunk.forEach((chunk, entries) -> {
+            BlockPos pos = entries.get(0).pos;
+            PacketDispatcher.sendToWatchers(new PacketTileSync(entries), world, pos.getX(), pos.getZ());
+            batches++;
+        });
+    }
+
+    /**
+     * The number of batched packets sent so far.
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    /**
+     * The sync counters of each tile class, sorted by name.
+     */
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> sorted = new TreeMap<>();
+        stats.forEach((type, tileStats) -> sorted.put(type.getSimpleName(), tileStats));
+        return sorted;
+    }
+
+    public static final class Stats {
+        private int sent;
+        private int skipped;
+        private int deltas;
+        private long bytes;
+
+        public int getSent() {
+            return sent;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * The number of payloads sent that only carried the synced fields that changed.
+         */
+        public int getDeltas() {
+            return deltas;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    private static final class WorldSync {
+        private final Set<RailcraftTileEntity> dirty = new LinkedHashSet<>();
+        private final Long2ObjectOpenHashMap<Map<RailcraftTileEntity, byte[][]>> sent = new Long2ObjectOpenHashMap<>();
+    }
+}
@@ -9,6 +9,9 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.util.routing;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import mods.railcraft.api.carts.CartToolsAPI;
 import mods.railcraft.api.carts.IPaintedCart;
 import mods.railcraft.api.carts.IRoutableCart;
@@ -20,6 +23,7 @@ import mods.railcraft.common.plugins.color.EnumColor;
 import mods.railcraft.common.plugins.forge.LocalizationPlugin;
 import mods.railcraft.common.util.collections.Streams;
 import mods.railcraft.common.util.fuel.INeedsFuel;
+import mods.railcraft.common.util.misc.Game;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.item.EntityMinecart;
@@ -27,6 +31,7 @@ import net.minecraft.entity.monster.EntityMob;
 import net.minecraft.entity.passive.EntityAnimal;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.text.TextFormatting;
+import net.minecraft.world.World;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
@@ -39,14 +44,25 @@ import static mods.railcraft.common.plugins.forge.PowerPlugin.FULL_POWER;
 import static mods.railcraft.common.plugins.forge.PowerPlugin.NO_POWER;
 
 /**
+ * A routing table compiled into an immutable list of expressions.
+ *
+ * Compiled tables are shared by every router holding a table with the same contents, so the
+ * server side results are also remembered per cart for the rest of the tick, unless the table
+ * depends on the router it is evaluated for.
+ *
  * @author CovertJaguar <http://www.railcraft.info/>
  */
 public final class RoutingLogic {
 
     private static final String REGEX_SYMBOL = "\\?";
+    private static final Cache<List<String>, RoutingLogic> compiled = CacheBuilder.newBuilder().maximumSize(256).build();
 
-    private Deque<Expression> expressions;
+    private Expression[] expressions;
     private RoutingLogicException error;
+    private boolean dependsOnTile;
+    private final Int2IntOpenHashMap memo = new Int2IntOpenHashMap();
+    private @Nullable World memoWorld;
+    private long memoTick = -1;
 
     private RoutingLogic(@Nullable Deque<String> data) {
         try {
@@ -59,8 +75,19 @@ public final class RoutingLogic {
         }
     }
 
+    /**
+     * Returns the compiled logic for the table contents, tables with equal contents share the same instance.
+     */
     public static RoutingLogic buildLogic(@Nullable Deque<String> data) {
-        return new RoutingLogic(data);
+        if (data == null)
+            return new RoutingLogic(null);
+        List<String> key = new ArrayList<>(data);
+        RoutingLogic logic = compiled.getIfPresent(key);
+        if (logic == null) {
+            logic = new RoutingLogic(data);
+            compiled.put(key, logic);
+        }
+        return logic;
     }
 
     @Nullable
@@ -81,7 +108,7 @@ public final class RoutingLogic {
                 continue;
             stack.push(parseLine(line, stack));
         }
-        expressions = stack;
+        expressions = stack.toArray(new Expression[0]);
     }
 
     private EntityMinecart getRoutableCart(EntityMinecart cart) {
@@ -107,8 +134,31 @@ public final class RoutingLogic {
     public int evaluate(ITileRouting tile, EntityMinecart cart) {
         if (expressions == null)
             return NO_POWER;
+        if (dependsOnTile || !Game.isHost(cart.world))
+            return evaluateExpressions(tile, cart);
+        synchronized (memo) {
+            long tick = cart.world.getTotalWorldTime();
+            if (memoWorld != cart.world || memoTick != tick) {
+                memo.clear();
+                memoWorld = cart.world;
+                memoTick = tick;
+            }
+            if (memo.containsKey(cart.getEntityId()))
+                return memo.get(cart.getEntityId());
+            int value = evaluateExpressions(tile, cart);
+            memo.put(cart.getEntityId(), value);
+            return value;
+        }
+    }
+
+    private int evaluateExpressions(ITileRouting tile, EntityMinecart cart) {
         EntityMinecart controllingCart = getRoutableCart(cart);
-        return expressions.stream().mapToInt(expression -> expression.evaluate(tile, controllingCart)).filter(value -> value != NO_POWER).findFirst().orElse(NO_POWER);
+        for (Expression expression : expressions) {
+            int value = expression.evaluate(tile, controllingCart);
+            if (value != NO_POWER)
+                return value;
+        }
+        return NO_POWER;
     }
 
     private Expression parseLine(String line, Deque<Expression> stack) throws RoutingLogicException {
@@ -127,8 +177,10 @@ public final class RoutingLogic {
                 return new RefuelCondition(line);
             if (line.startsWith("Rider"))
                 return new RiderCondition(line);
-            if (line.startsWith("Redstone"))
+            if (line.startsWith("Redstone")) {
+                dependsOnTile = true;
                 return new RedstoneCondition(line);
+            }
             if (line.startsWith("Loco"))
                 return new LocoCondition(line);
         } catch (RoutingLogicException ex) {
@@ -201,6 +253,7 @@ public final class RoutingLogic {
 
         public final String value;
         final boolean isRegex;
+        final @Nullable Pattern pattern;
 
         ParsedCondition(String keyword, boolean supportsRegex, String line) throws RoutingLogicException {
             String keywordMatch = keyword + REGEX_SYMBOL + "?=";
@@ -210,19 +263,21 @@ public final class RoutingLogic {
             if (!supportsRegex && isRegex)
                 throw new RoutingLogicException("gui.railcraft.routing.logic.regex.unsupported", line);
             this.value = line.replaceFirst(keywordMatch, "");
-            if (isRegex)
-                validateRegex(line);
+            this.pattern = isRegex ? compileRegex(value, line) : null;
         }
 
-        protected void validateRegex(String line) throws RoutingLogicException {
+        protected static Pattern compileRegex(String regex, String line) throws RoutingLogicException {
             try {
-                //noinspection ResultOfMethodCallIgnored
-                Pattern.compile(value);
+                return Pattern.compile(regex);
             } catch (PatternSyntaxException ex) {
                 throw new RoutingLogicException("gui.railcraft.routing.logic.regex.invalid", line);
             }
         }
 
+        protected boolean matchesRegex(String text) {
+            return pattern != null && pattern.matcher(text).matches();
+        }
+
         @Override
         public abstract boolean matches(ITileRouting tile, EntityMinecart cart);
 
@@ -343,7 +398,7 @@ public final class RoutingLogic {
                 if (StringUtils.isBlank(cartDest))
                     return false;
                 if (isRegex)
-                    return cartDest.matches(value);
+                    return matchesRegex(cartDest);
                 return cartDest.startsWith(value);
             }
             return false;
@@ -376,7 +431,7 @@ public final class RoutingLogic {
                 return StringUtils.equalsIgnoreCase("null", value);
             String customName = cart.getName();
             if (isRegex)
-                return customName.matches(value);
+                return matchesRegex(customName);
             return StringUtils.equalsIgnoreCase(customName, value);
         }
 
@@ -413,10 +468,12 @@ public final class RoutingLogic {
 
     private static class RiderCondition extends ParsedCondition {
         private final String[] tokens;
+        private final @Nullable Pattern namePattern;
 
         RiderCondition(String line) throws RoutingLogicException {
             super("Rider", true, line);
             tokens = value.split(":");
+            namePattern = isRegex && tokens.length > 1 ? compileRegex(tokens[1], line) : null;
             if (isRegex)
                 switch (tokens[0].toLowerCase(Locale.ROOT)) {
                     case "any":
@@ -472,7 +529,7 @@ public final class RoutingLogic {
                 case "player":
                     if (tokens.length == 2) {
                         if (isRegex) {
-                            return getPassengers(cart).stream().anyMatch(e -> e instanceof EntityPlayer && e.getName().matches(tokens[1]));
+                            return getPassengers(cart).stream().anyMatch(e -> e instanceof EntityPlayer && matchesName(e.getName()));
                         } else {
                             return getPassengers(cart).stream().anyMatch(e -> e instanceof EntityPlayer && e.getName().equalsIgnoreCase(tokens[1]));
                         }
@@ -481,7 +538,7 @@ public final class RoutingLogic {
                 case "named":
                     if (tokens.length == 2) {
                         if (isRegex) {
-                            return getPassengers(cart).stream().anyMatch(e -> e.hasCustomName() && e.getCustomNameTag().matches(tokens[1]));
+                            return getPassengers(cart).stream().anyMatch(e -> e.hasCustomName() && matchesName(e.getCustomNameTag()));
                         } else {
                             return getPassengers(cart).stream().anyMatch(e -> e.hasCustomName() && e.getCustomNameTag().equalsIgnoreCase(tokens[1]));
                         }
@@ -491,6 +548,10 @@ public final class RoutingLogic {
             return false;
         }
 
+        private boolean matchesName(String name) {
+            return namePattern != null && namePattern.matcher(name).matches();
+        }
+
         private List<Entity> getPassengers(EntityMinecart cart) {
             return Train.getTrain(cart).stream().flatMap(c -> c.getPassengers().stream()).collect(Collectors.toList());
         }
@@ -18,6 +18,7 @@ import mods.railcraft.common.gui.widgets.IIndicatorController;
 import mods.railcraft.common.gui.widgets.IndicatorController;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraftforge.fluids.FluidStack;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * @author CovertJaguar <http://www.railcraft.info/>
@@ -38,6 +39,7 @@ public class SteamBoiler {
     private int ticksPerCycle = 16;
     private RailcraftTileEntity tile;
     private IFuelProvider fuelProvider;
+    private @Nullable FluidStack steam;
 
     public SteamBoiler(FilteredTank tankWater, FilteredTank tankSteam) {
         this.tankWater = tankWater;
@@ -212,14 +214,17 @@ public class SteamBoiler {
             return 0;
         partialConversions -= waterCost;
 
-        FluidStack water = tankWater.drainInternal(waterCost, false);
-        if (water == null)
+        waterCost = Math.min(waterCost, tankWater.getFluidAmount());
+        if (waterCost <= 0)
             return 0;
 
-        waterCost = Math.min(waterCost, water.amount);
-        FluidStack steam = Fluids.STEAM.get(SteamConstants.STEAM_PER_UNIT_WATER * waterCost);
-        if (steam == null)
-            return 0;
+        if (steam == null) {
+            steam = Fluids.STEAM.get(0);
+            if (steam == null)
+                return 0;
+        }
+        // The tank copies what it is filled with, so the same stack can be handed over every cycle
+        steam.amount = SteamConstants.STEAM_PER_UNIT_WATER * waterCost;
 
         tankWater.drainInternal(waterCost, true);
         tankSteam.fillInternal(steam, true);
@@ -0,0 +1,156 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.util.steam;
+
+import com.google.common.collect.MapMaker;
+import mods.railcraft.common.blocks.RailcraftTileEntity;
+import mods.railcraft.common.fluids.FluidTools;
+import mods.railcraft.common.fluids.TankManager;
+import mods.railcraft.common.fluids.tanks.StandardTank;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.FluidUtil;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Hands out the steam of a multiblock from one shared tank to everything touching its outside.
+ *
+ * The outlets, the blocks next to the members that take steam and the fluid handlers they offer,
+ * are found once and kept until a member or an outlet changes, or the members are looked over
+ * again every {@link #REFRESH_INTERVAL} ticks for anything new. Each tick every outlet is offered
+ * steam from the tank in turn for as long as the owner allows it, the amount moved is averaged
+ * into a throughput figure.
+ */
+public final class SteamNetwork {
+    public static final int REFRESH_INTERVAL = 20;
+    private static final Set<SteamNetwork> networks = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+    private final RailcraftTileEntity owner;
+    private final StandardTank tank;
+    private final int transferRate;
+    private final BiPredicate<RailcraftTileEntity, TileEntity> outputFilter;
+    private final List<Outlet> outlets = new ArrayList<>();
+    private boolean dirty = true;
+    private int clock;
+    private int transferred;
+    private float throughput;
+
+    public SteamNetwork(RailcraftTileEntity owner, StandardTank tank, int transferRate, BiPredicate<RailcraftTileEntity, TileEntity> outputFilter) {
+        this.owner = owner;
+        this.tank = tank;
+        this.transferRate = transferRate;
+        this.outputFilter = outputFilter;
+    }
+
+    public static Collection<SteamNetwork> getNetworks() {
+        return Collections.unmodifiableSet(networks);
+    }
+
+    public RailcraftTileEntity getOwner() {
+        return owner;
+    }
+
+    public int getOutletCount() {
+        return outlets.size();
+    }
+
+    /**
+     * Returns the steam handed out per tick, averaged over the last {@link #REFRESH_INTERVAL} ticks.
+     */
+    public float getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Forgets the outlets, they are found again on the next tick.
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Removes the network from the list of networks, done when the owner stops owning it.
+     */
+    public void unregister() {
+        networks.remove(this);
+        outlets.clear();
+        dirty = true;
+        transferred = 0;
+        throughput = 0;
+    }
+
+    /**
+     * Offers steam to the outlets of the given members, looking the outlets up again first if
+     * needed. The condition is checked again before each outlet, as the tank drains.
+     */
+    public void tick(List<? extends RailcraftTileEntity> members, BooleanSupplier canPush) {
+        networks.add(this);
+        clock++;
+        if (clock % REFRESH_INTERVAL == 0) {
+            throughput = (float) transferred / REFRESH_INTERVAL;
+            transferred = 0;
+            dirty = true;
+        }
+
+        if (!canPush.getAsBoolean())
+            return;
+
+        for (Outlet outlet : outlets) {
+            if (outlet.target.isInvalid()) {
+                dirty = true;
+                break;
+            }
+        }
+        if (dirty)
+            findOutlets(members);
+
+        for (Outlet outlet : outlets) {
+            if (!canPush.getAsBoolean())
+                break;
+            FluidStack moved = FluidUtil.tryFluidTransfer(outlet.handler, tank, transferRate, true);
+            if (moved != null)
+                transferred += moved.amount;
+        }
+    }
+
+    private void findOutlets(List<? extends RailcraftTileEntity> members) {
+        dirty = false;
+        outlets.clear();
+        for (RailcraftTileEntity member : members) {
+            for (EnumFacing side : EnumFacing.VALUES) {
+                TileEntity tile = member.getTileCache().getTileOnSide(side);
+                if (tile == null) continue;
+                if (!TankManager.TANK_FILTER.apply(tile, side.getOpposite())) continue;
+                if (!outputFilter.test(member, tile)) continue;
+                IFluidHandler handler = FluidTools.getFluidHandler(side.getOpposite(), tile);
+                if (handler != null)
+                    outlets.add(new Outlet(tile, handler));
+            }
+        }
+    }
+
+    private static final class Outlet {
+        private final TileEntity target;
+        private final IFluidHandler handler;
+
+        private Outlet(TileEntity target, IFluidHandler handler) {
+            this.target = target;
+            this.handler = handler;
+        }
+    }
+}